@@ -0,0 +1,111 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Snapshot sized batches through {@link ColumnConverter}'s array API, against converting the same values one by one.
+ * Scores are per value.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchConversionBenchmark {
+
+    private static final int VALUES = 1024;
+
+    @Param({ "date", "datetime" })
+    public String columnType;
+
+    @Param({ "string", "micros" })
+    public String outputMode;
+
+    @Param({ "EPOCH_MILLIS", "ISO" })
+    public BenchmarkSupport.Shape shape;
+
+    private ColumnConverter converter;
+    private ColumnConverter microsConverter;
+    private CharSequence[] texts;
+    private long[] numbers;
+    private Object[] out;
+    private long[] longs;
+
+    @Setup
+    public void setup() {
+        Properties props = new Properties();
+        props.put("output.mode", this.outputMode);
+        TimestampConverter tsConverter = BenchmarkSupport.configuredConverter(props);
+        this.converter = tsConverter.columnConverter("inventory.orders", "column_" + this.columnType,
+                this.columnType);
+        props.put("output.mode", "micros");
+        this.microsConverter = BenchmarkSupport.configuredConverter(props).columnConverter("inventory.orders",
+                "column_" + this.columnType, this.columnType);
+
+        Object[] values = BenchmarkSupport.values(this.shape, VALUES, 20200416L);
+        this.texts = new CharSequence[VALUES];
+        this.numbers = new long[VALUES];
+        Object[] millis = BenchmarkSupport.values(BenchmarkSupport.Shape.EPOCH_MILLIS, VALUES, 20200416L);
+        for (int i = 0; i < VALUES; i++) {
+            this.texts[i] = (CharSequence) values[i];
+            this.numbers[i] = Long.parseLong((String) millis[i]);
+        }
+        this.out = new Object[VALUES];
+        this.longs = new long[VALUES];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public Object[] textPerValue() {
+        for (int i = 0; i < VALUES; i++)
+            this.out[i] = this.converter.convert(this.texts[i]);
+        return this.out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public Object[] textBatch() {
+        this.converter.convert(this.texts, VALUES, this.out);
+        return this.out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public Object[] numberPerValue() {
+        for (int i = 0; i < VALUES; i++)
+            this.out[i] = this.converter.convert(this.numbers[i]);
+        return this.out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public Object[] numberBatch() {
+        this.converter.convert(this.numbers, VALUES, this.out);
+        return this.out;
+    }
+
+    /**
+     * Numbers to unboxed micros, whatever the {@code outputMode} parameter.
+     */
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public long[] numberToMicrosBatch() {
+        this.microsConverter.convert(this.numbers, VALUES, this.longs);
+        return this.longs;
+    }
+}
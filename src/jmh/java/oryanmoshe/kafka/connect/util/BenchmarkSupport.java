@@ -0,0 +1,168 @@
+package oryanmoshe.kafka.connect.util;
+
+import io.debezium.spi.converter.CustomConverter.Converter;
+import io.debezium.spi.converter.CustomConverter.ConverterRegistration;
+import io.debezium.spi.converter.RelationalColumn;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.OptionalInt;
+import java.util.Properties;
+import java.util.Random;
+
+import org.apache.kafka.connect.data.SchemaBuilder;
+
+/**
+ * Mock Debezium plumbing and value generators shared by the benchmarks.
+ */
+public final class BenchmarkSupport {
+
+    static final String[] MONTHS = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov",
+            "Dec" };
+
+    /**
+     * The raw value shapes the connectors hand over.
+     */
+    public enum Shape {
+        EPOCH_DAYS, EPOCH_MILLIS, EPOCH_MICROS, EPOCH_NANOS, ISO, DAY_MONTH_YEAR, DAY_MONTH_NAME_YEAR, NULL,
+        /** Mostly a few repeated sentinel values, with one distinct ISO value in eight */
+        SENTINEL
+    }
+
+    static final String[] SENTINELS = { "1900-01-01 00:00:00", "1970-01-01 00:00:00", "9999-12-31 23:59:59",
+            "2000-01-01 00:00:00" };
+
+    static final class Registration implements ConverterRegistration<SchemaBuilder> {
+        SchemaBuilder schema;
+        Converter converter;
+
+        @Override
+        public void register(SchemaBuilder fieldSchema, Converter converter) {
+            this.schema = fieldSchema;
+            this.converter = converter;
+        }
+    }
+
+    private BenchmarkSupport() {
+    }
+
+    static Converter converterFor(TimestampConverter tsConverter, String typeName) {
+        Registration registration = new Registration();
+        tsConverter.converterFor(column(typeName, "column_" + typeName), registration);
+        return registration.converter;
+    }
+
+    static TimestampConverter configuredConverter(Properties props) {
+        TimestampConverter tsConverter = new TimestampConverter();
+        tsConverter.configure(props);
+        return tsConverter;
+    }
+
+    /**
+     * @return {@code count} raw values of the given shape, within a few weeks of each other like typical CDC traffic
+     */
+    static Object[] values(Shape shape, int count, long seed) {
+        Random random = new Random(seed);
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            long millis = 1587042000279L + (long) (random.nextDouble() * 30 * 86400000L);
+            LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+            switch (shape) {
+                case EPOCH_DAYS:
+                    values[i] = Long.toString(millis / 86400000L);
+                    break;
+                case EPOCH_MILLIS:
+                    values[i] = Long.toString(millis);
+                    break;
+                case EPOCH_MICROS:
+                    values[i] = Long.toString(millis * 1000 + random.nextInt(1000));
+                    break;
+                case EPOCH_NANOS:
+                    values[i] = Long.toString(millis * 1000_000 + random.nextInt(1000_000));
+                    break;
+                case ISO:
+                    values[i] = dateTime.toLocalDate() + " " + dateTime.toLocalTime().withNano(0) + "."
+                            + String.format("%06d", random.nextInt(1000_000));
+                    break;
+                case DAY_MONTH_YEAR:
+                    values[i] = String.format("%d/%d/%d %s", dateTime.getDayOfMonth(), dateTime.getMonthValue(),
+                            dateTime.getYear(), dateTime.toLocalTime().withNano(0));
+                    break;
+                case DAY_MONTH_NAME_YEAR:
+                    values[i] = String.format("%02d-%s-%d %s", dateTime.getDayOfMonth(),
+                            MONTHS[dateTime.getMonthValue() - 1], dateTime.getYear(),
+                            dateTime.toLocalTime().withNano(0));
+                    break;
+                case SENTINEL:
+                    values[i] = random.nextInt(8) == 0
+                            ? dateTime.toLocalDate() + " " + dateTime.toLocalTime().withNano(0)
+                            : SENTINELS[random.nextInt(SENTINELS.length)];
+                    break;
+                default:
+                    values[i] = null;
+            }
+        }
+        return values;
+    }
+
+    static RelationalColumn column(String typeName, String name) {
+        return new RelationalColumn() {
+
+            @Override
+            public String typeName() {
+                return typeName;
+            }
+
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public String dataCollection() {
+                return "benchmark";
+            }
+
+            @Override
+            public String typeExpression() {
+                return typeName;
+            }
+
+            @Override
+            public OptionalInt scale() {
+                return OptionalInt.empty();
+            }
+
+            @Override
+            public int nativeType() {
+                return 0;
+            }
+
+            @Override
+            public OptionalInt length() {
+                return OptionalInt.empty();
+            }
+
+            @Override
+            public int jdbcType() {
+                return 0;
+            }
+
+            @Override
+            public boolean isOptional() {
+                return true;
+            }
+
+            @Override
+            public boolean hasDefaultValue() {
+                return false;
+            }
+
+            @Override
+            public Object defaultValue() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package oryanmoshe.kafka.connect.util;
+
+import io.debezium.spi.converter.CustomConverter.Converter;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.json.JsonConverter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Converts a row of every column type and serializes it with Kafka Connect's {@link JsonConverter}, per output mode.
+ * <p>
+ * Next to the throughput, the {@code recordBytes} secondary result is the average serialized size of a record's
+ * payload, which is what the binary output modes shrink.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputModeBenchmark {
+
+    private static final int VALUES = 1024;
+    private static final String[] COLUMN_TYPES = { "date", "time", "datetime", "timestamp", "datetime2" };
+
+    @Param({ "string", "logical", "millis", "micros" })
+    public String outputMode;
+
+    private Converter[] converters;
+    private Schema schema;
+    private JsonConverter jsonConverter;
+    private Object[] values;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        private int index;
+        private long records, bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.records = 0;
+            this.bytes = 0;
+        }
+
+        public double recordBytes() {
+            return this.records == 0 ? 0 : (double) this.bytes / this.records;
+        }
+
+        int next() {
+            return this.index = (this.index + 1) & (VALUES - 1);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Properties props = new Properties();
+        props.put("output.mode", this.outputMode);
+        TimestampConverter tsConverter = BenchmarkSupport.configuredConverter(props);
+
+        this.converters = new Converter[COLUMN_TYPES.length];
+        SchemaBuilder schema = SchemaBuilder.struct().name("benchmark.Value");
+        for (int i = 0; i < COLUMN_TYPES.length; i++) {
+            BenchmarkSupport.Registration registration = new BenchmarkSupport.Registration();
+            tsConverter.converterFor(BenchmarkSupport.column(COLUMN_TYPES[i], COLUMN_TYPES[i]), registration);
+            this.converters[i] = registration.converter;
+            schema.field(COLUMN_TYPES[i], registration.schema.build());
+        }
+        this.schema = schema.build();
+
+        // Payload only, like a registry backed format where the schema is not part of every record
+        this.jsonConverter = new JsonConverter();
+        this.jsonConverter.configure(Map.of("schemas.enable", "false"), false);
+
+        this.values = BenchmarkSupport.values(BenchmarkSupport.Shape.ISO, VALUES, 20200416L);
+    }
+
+    @Benchmark
+    public byte[] serialize(Counters counters) {
+        Object value = this.values[counters.next()];
+        Struct struct = new Struct(this.schema);
+        for (int i = 0; i < COLUMN_TYPES.length; i++)
+            struct.put(COLUMN_TYPES[i], this.converters[i].convert(value));
+
+        byte[] serialized = this.jsonConverter.fromConnectData("benchmark", this.schema, struct);
+        counters.records++;
+        counters.bytes += serialized.length;
+        return serialized;
+    }
+}
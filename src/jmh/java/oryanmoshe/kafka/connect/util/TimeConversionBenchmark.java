@@ -0,0 +1,112 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time column values, MySQL {@code TIME}s from {@code -838:59:59} to {@code 838:59:59}, printed with the default
+ * time format by:
+ * <ul>
+ * <li>{@code legacy}: the original {@code Instant} to {@code Date} to {@code SimpleDateFormat} path</li>
+ * <li>{@code calendar}: the compiled {@link TemporalFormatter} time columns used before, printing the time of the
+ * day</li>
+ * <li>{@code elapsed}: the {@link TimePrinter} they use now, which keeps the hours beyond 24 and the sign</li>
+ * <li>{@code convert}: a whole conversion of the raw value by a time column</li>
+ * </ul>
+ * The first three print the same milliseconds, only {@code convert} reads the raw values of the {@code input} shape.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeConversionBenchmark {
+
+    private static final int VALUES = 1024;
+    private static final long MAX_MILLIS = Duration.parse("PT838H59M59.999S").toMillis();
+
+    @Param({ "millis", "text", "duration" })
+    public String input;
+
+    private long[] millis;
+    private Object[] values;
+    private SimpleDateFormat simpleTimeFormatter;
+    private TemporalFormatter formatter;
+    private TimePrinter timePrinter;
+    private ColumnConverter converter;
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(20200416L);
+        this.millis = new long[VALUES];
+        this.values = new Object[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            long value = (long) ((random.nextDouble() * 2 - 1) * MAX_MILLIS);
+            this.millis[i] = value;
+            Duration duration = Duration.ofMillis(value);
+            switch (this.input) {
+                case "millis":
+                    this.values[i] = value;
+                    break;
+                case "duration":
+                    this.values[i] = duration;
+                    break;
+                default:
+                    Duration magnitude = duration.abs();
+                    this.values[i] = String.format("%s%02d:%02d:%02d.%03d", duration.isNegative() ? "-" : "",
+                            magnitude.toHours(), magnitude.toMinutesPart(), magnitude.toSecondsPart(),
+                            magnitude.toMillisPart());
+            }
+        }
+
+        this.simpleTimeFormatter = new SimpleDateFormat(TimestampConverter.DEFAULT_TIME_FORMAT);
+        this.simpleTimeFormatter.setTimeZone(TimeZone.getTimeZone("UTC"));
+        this.formatter = TemporalFormatter.ofPattern(TimestampConverter.DEFAULT_TIME_FORMAT);
+        this.timePrinter = this.formatter.timePrinter();
+        this.converter = new ColumnConverter(this.formatter, true, null);
+    }
+
+    private int next() {
+        return this.index = (this.index + 1) & (VALUES - 1);
+    }
+
+    @Benchmark
+    public String legacy() {
+        return this.simpleTimeFormatter.format(Date.from(Instant.ofEpochMilli(this.millis[next()])));
+    }
+
+    @Benchmark
+    public String calendar() {
+        return this.formatter.format(this.millis[next()]);
+    }
+
+    @Benchmark
+    public String elapsed() {
+        long value = this.millis[next()];
+        return this.timePrinter.print(Math.floorDiv(value, 1000L), (int) Math.floorMod(value, 1000L) * 1_000_000);
+    }
+
+    @Benchmark
+    public Object convert() {
+        return this.converter.convert(this.values[next()]);
+    }
+}
@@ -0,0 +1,80 @@
+package oryanmoshe.kafka.connect.util;
+
+import io.debezium.spi.converter.CustomConverter.Converter;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End to end conversion through {@link TimestampConverter#converterFor}, per column type and raw value shape.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}, the default arguments add the GC profiler so every result
+ * reports {@code gc.alloc.rate.norm} (bytes allocated per operation) next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampConverterBenchmark {
+
+    private static final int VALUES = 1024;
+
+    @Param({ "date", "time", "datetime", "timestamp", "datetime2" })
+    public String columnType;
+
+    @Param({ "EPOCH_DAYS", "EPOCH_MILLIS", "EPOCH_MICROS", "EPOCH_NANOS", "ISO", "DAY_MONTH_YEAR",
+            "DAY_MONTH_NAME_YEAR", "NULL", "SENTINEL" })
+    public BenchmarkSupport.Shape shape;
+
+    // Compare the memo cache with e.g. -p memoCacheSize=0,1024
+    @Param({ "0" })
+    public int memoCacheSize;
+
+    private Converter converter;
+    private Object[] values;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        int next() {
+            return this.index = (this.index + 1) & (VALUES - 1);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Properties props = new Properties();
+        props.put("memo.cache.size", String.valueOf(this.memoCacheSize));
+        TimestampConverter tsConverter = BenchmarkSupport.configuredConverter(props);
+        this.converter = BenchmarkSupport.converterFor(tsConverter, this.columnType);
+        this.values = BenchmarkSupport.values(this.shape, VALUES, 20200416L);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object singleThreaded(Cursor cursor) {
+        return this.converter.convert(this.values[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object multiThreaded(Cursor cursor) {
+        return this.converter.convert(this.values[cursor.next()]);
+    }
+}
@@ -0,0 +1,97 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Records with many fields, every fifth one temporal (alternating logical timestamps, epoch millis and ISO strings),
+ * through {@link TimestampConverterTransform}. Scores are records per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformBenchmark {
+
+    private static final int RECORDS = 256;
+
+    @Param({ "20", "100" })
+    public int fields;
+
+    @Param({ "string", "micros" })
+    public String outputMode;
+
+    private TimestampConverterTransform<SourceRecord> transform;
+    private SourceRecord[] records;
+    private int index;
+
+    @Setup
+    public void setup() {
+        SchemaBuilder builder = SchemaBuilder.struct().name("inventory.orders.Value");
+        StringJoiner fieldTypes = new StringJoiner(",");
+        for (int i = 0; i < this.fields; i++) {
+            String name = "field_" + i;
+            if (i % 5 != 0) {
+                builder.field(name, Schema.OPTIONAL_STRING_SCHEMA);
+            } else if (i % 15 == 0) {
+                builder.field(name, Timestamp.builder().optional().build());
+            } else {
+                builder.field(name, i % 10 == 0 ? Schema.OPTIONAL_INT64_SCHEMA : Schema.OPTIONAL_STRING_SCHEMA);
+                fieldTypes.add(name + ":datetime");
+            }
+        }
+        Schema schema = builder.build();
+
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("field.types", fieldTypes.toString());
+        configs.put("output.mode", this.outputMode);
+        this.transform = new TimestampConverterTransform.Value<>();
+        this.transform.configure(configs);
+
+        Object[] isoValues = BenchmarkSupport.values(BenchmarkSupport.Shape.ISO, RECORDS, 20200416L);
+        Object[] millisValues = BenchmarkSupport.values(BenchmarkSupport.Shape.EPOCH_MILLIS, RECORDS, 20200416L);
+        this.records = new SourceRecord[RECORDS];
+        for (int r = 0; r < RECORDS; r++) {
+            long millis = Long.parseLong((String) millisValues[r]);
+            Struct value = new Struct(schema);
+            for (int i = 0; i < this.fields; i++) {
+                String name = "field_" + i;
+                if (i % 5 != 0)
+                    value.put(name, "value " + r + "/" + i);
+                else if (i % 15 == 0)
+                    value.put(name, new Date(millis));
+                else
+                    value.put(name, i % 10 == 0 ? (Object) millis : isoValues[r]);
+            }
+            this.records[r] = new SourceRecord(null, null, "orders", 0, null, null, schema, value);
+        }
+    }
+
+    @Benchmark
+    public SourceRecord apply() {
+        this.index = (this.index + 1) & (RECORDS - 1);
+        return this.transform.apply(this.records[this.index]);
+    }
+}
@@ -0,0 +1,46 @@
+package oryanmoshe.kafka.connect.util;
+
+/**
+ * Point in time snapshot of a converter cache's counters.
+ */
+public final class CacheStatistics {
+
+    public static final CacheStatistics DISABLED = new CacheStatistics(0, 0, 0, 0);
+
+    private final long hits, misses, evictions;
+    private final int capacity;
+
+    CacheStatistics(long hits, long misses, long evictions, int capacity) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.capacity = capacity;
+    }
+
+    public long hits() {
+        return this.hits;
+    }
+
+    public long misses() {
+        return this.misses;
+    }
+
+    public long evictions() {
+        return this.evictions;
+    }
+
+    public int capacity() {
+        return this.capacity;
+    }
+
+    public double hitRate() {
+        long requests = this.hits + this.misses;
+        return requests == 0 ? 0 : (double) this.hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStatistics[hits=%d, misses=%d, evictions=%d, capacity=%d, hitRate=%.3f]", this.hits,
+                this.misses, this.evictions, this.capacity, hitRate());
+    }
+}
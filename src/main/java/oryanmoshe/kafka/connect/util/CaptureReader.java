@@ -0,0 +1,270 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Streams the {@code (typeName, rawValue)} pairs of a capture file one line at a time, so captures of any size are
+ * replayed with a constant amount of memory. Two formats are read:
+ * <ul>
+ * <li>CSV: {@code datetime,2019-04-19 15:13:20}, with an optional {@code typeName,rawValue} header. The raw value is
+ * the rest of the line, or a double quoted string with {@code ""} for a quote. An empty unquoted value is
+ * {@code null}.</li>
+ * <li>NDJSON: {@code {"type": "datetime", "value": "2019-04-19 15:13:20"}} (or {@code typeName} and
+ * {@code rawValue}), where integral numbers are read as {@code Long}s, like Debezium hands over epoch values.</li>
+ * </ul>
+ * Lines that cannot be read are skipped and counted.
+ */
+final class CaptureReader implements Closeable {
+
+    enum Format {
+        CSV, NDJSON;
+
+        /**
+         * @throws IllegalArgumentException if {@code name} is not a format, ignoring case
+         */
+        static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name))
+                    return format;
+            }
+            throw new IllegalArgumentException("Unsupported capture format: " + name);
+        }
+
+        /**
+         * @return {@link #NDJSON} for {@code .ndjson}, {@code .jsonl} and {@code .json} files, {@link #CSV} otherwise
+         */
+        static Format ofFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json") ? NDJSON : CSV;
+        }
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private long lineNumber;
+    private long unreadableLines;
+
+    // The JSON line being read, and the position in it
+    private String line;
+    private int pos;
+
+    // The pair of the last successful next()
+    String typeName;
+    Object rawValue;
+
+    CaptureReader(BufferedReader reader, Format format) {
+        this.reader = reader;
+        this.format = format;
+    }
+
+    /**
+     * Reads the next pair into {@link #typeName} and {@link #rawValue}.
+     *
+     * @return {@code false} at the end of the capture
+     */
+    boolean next() throws IOException {
+        String line;
+        while ((line = this.reader.readLine()) != null) {
+            this.lineNumber++;
+            if (line.isBlank())
+                continue;
+            if (this.format == Format.CSV ? readCsv(line) : readJson(line))
+                return true;
+            if (this.lineNumber > 1 || !isCsvHeader(line))
+                this.unreadableLines++;
+        }
+        return false;
+    }
+
+    /**
+     * @return how many lines were skipped because they could not be read
+     */
+    long unreadableLines() {
+        return this.unreadableLines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    private boolean isCsvHeader(String line) {
+        return this.format == Format.CSV
+                && (line.equalsIgnoreCase("typeName,rawValue") || line.equalsIgnoreCase("type,value"));
+    }
+
+    private boolean readCsv(String line) {
+        int comma = line.indexOf(',');
+        if (comma <= 0 || (this.lineNumber == 1 && isCsvHeader(line)))
+            return false;
+        this.typeName = line.substring(0, comma).trim();
+
+        int start = comma + 1;
+        if (start == line.length()) {
+            this.rawValue = null;
+            return true;
+        }
+        if (line.charAt(start) != '"') {
+            this.rawValue = line.substring(start);
+            return true;
+        }
+
+        StringBuilder value = new StringBuilder();
+        for (int i = start + 1; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c != '"') {
+                value.append(c);
+            } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                value.append('"');
+                i++;
+            } else {
+                this.rawValue = value.toString();
+                // Nothing may follow the closing quote
+                return i + 1 == line.length();
+            }
+        }
+        // Unterminated quote
+        return false;
+    }
+
+    /**
+     * Reads a flat JSON object, the only shape of NDJSON captures.
+     */
+    private boolean readJson(String line) {
+        this.line = line;
+        this.pos = 0;
+        String typeName = null;
+        Object rawValue = null;
+        boolean hasValue = false;
+        try {
+            expect('{');
+            if (!consume('}')) {
+                do {
+                    String key = jsonString();
+                    expect(':');
+                    Object value = jsonValue();
+                    if (key.equals("type") || key.equals("typeName")) {
+                        typeName = value == null ? null : value.toString();
+                    } else if (key.equals("value") || key.equals("rawValue")) {
+                        rawValue = value;
+                        hasValue = true;
+                    }
+                } while (consume(','));
+                expect('}');
+            }
+            skipWhitespace();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (this.pos != line.length() || typeName == null || !hasValue)
+            return false;
+
+        this.typeName = typeName;
+        this.rawValue = rawValue;
+        return true;
+    }
+
+    private Object jsonValue() {
+        skipWhitespace();
+        char c = peek();
+        if (c == '"')
+            return jsonString();
+        if (this.line.startsWith("null", this.pos)) {
+            this.pos += 4;
+            return null;
+        }
+        if (this.line.startsWith("true", this.pos)) {
+            this.pos += 4;
+            return Boolean.TRUE;
+        }
+        if (this.line.startsWith("false", this.pos)) {
+            this.pos += 5;
+            return Boolean.FALSE;
+        }
+
+        int start = this.pos;
+        while (this.pos < this.line.length() && "+-.0123456789eE".indexOf(this.line.charAt(this.pos)) >= 0)
+            this.pos++;
+        if (this.pos == start)
+            throw new IllegalArgumentException("Unexpected " + c + " at " + start);
+        String number = this.line.substring(start, this.pos);
+        try {
+            return Long.valueOf(number);
+        } catch (NumberFormatException e) {
+            // Fractional and huge numbers are replayed as their text
+            return number;
+        }
+    }
+
+    private String jsonString() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            char c = read();
+            if (c == '"')
+                return value.toString();
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            char escaped = read();
+            switch (escaped) {
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'u':
+                    if (this.pos + 4 > this.line.length())
+                        throw new IllegalArgumentException("Truncated escape at " + this.pos);
+                    value.append((char) Integer.parseInt(this.line.substring(this.pos, this.pos + 4), 16));
+                    this.pos += 4;
+                    break;
+                default:
+                    value.append(escaped);
+            }
+        }
+    }
+
+    private void expect(char expected) {
+        skipWhitespace();
+        if (read() != expected)
+            throw new IllegalArgumentException("Expected " + expected + " at " + (this.pos - 1));
+    }
+
+    private boolean consume(char expected) {
+        skipWhitespace();
+        if (peek() != expected)
+            return false;
+        this.pos++;
+        return true;
+    }
+
+    private char read() {
+        if (this.pos >= this.line.length())
+            throw new IllegalArgumentException("Unexpected end of line");
+        return this.line.charAt(this.pos++);
+    }
+
+    private char peek() {
+        return this.pos < this.line.length() ? this.line.charAt(this.pos) : '\0';
+    }
+
+    private void skipWhitespace() {
+        while (this.pos < this.line.length() && Character.isWhitespace(this.line.charAt(this.pos)))
+            this.pos++;
+    }
+}
@@ -0,0 +1,556 @@
+package oryanmoshe.kafka.connect.util;
+
+import io.debezium.spi.converter.CustomConverter;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.connect.data.SchemaBuilder;
+
+/**
+ * Conversion plan of a single column, resolved once in {@link TimestampConverter#converterFor} or
+ * {@link TimestampConverter#columnConverter}.
+ * <p>
+ * The formatter, the epoch interpretation and the value to return for {@code null} (the converted default value of a
+ * mandatory column) are fixed at registration, so converting a value only parses and formats it. Besides the single
+ * values Debezium hands over, whole arrays of raw values can be converted at once; both go through the same parsing
+ * and encoding, and give the same results.
+ * <p>
+ * The {@link InputShape} of the column's string values is learned from the first one, and later values go straight
+ * to that shape's parser behind a cheap guard. A value failing the guard takes the general path, which re-learns the
+ * shape if it changed. Both paths produce the same result for every value, the guard only picks the faster one.
+ * <p>
+ * Time columns printed with a format of only hours, minutes, seconds and fractions of the second read numbers,
+ * durations and {@code H:mm:ss} text as elapsed times, printed by a {@link TimePrinter}: values beyond 24 hours and
+ * negative ones are kept, where the calendar path would print their time of the day.
+ * <p>
+ * Neither path throws on values that cannot be converted: they report a {@link ParseStatus}, which is counted and
+ * handed to the column's {@link FailurePolicy}, so dirty data costs no more than clean data unless the policy is to
+ * fail.
+ * <p>
+ * Columns converting the same way share an immutable {@link Conversion}, each column's converter only holds the shape
+ * it learned and its failure counts.
+ */
+public final class ColumnConverter implements CustomConverter.Converter {
+
+    // Immutable, shared by the columns that convert the same way
+    private final Conversion conversion;
+    // Indexed by ParseStatus ordinal, only the failures are incremented. null until the column's first failure, most
+    // columns never have one
+    private volatile LongAdder[] failures;
+
+    // null until the first non blank string value
+    private volatile InputShape shape;
+    private final LongAdder shapeChanges = new LongAdder();
+
+    ColumnConverter(TemporalFormatter formatter, boolean isTime, Object defaultValue) {
+        this(formatter, isTime ? TemporalKind.TIME : TemporalKind.DATETIME, null, 3, OutputMode.STRING, null,
+                FailurePolicy.FAIL, defaultValue);
+    }
+
+    /**
+     * @param formatter     the formatter for the column's type
+     * @param kind          what the column's values represent
+     * @param handler       the handler of the column's type, or {@code null} for the plain built-in handling
+     * @param timePrecision the fractional second digits of numeric time of the day values, 3 for milliseconds
+     * @param output        how converted values are emitted
+     * @param sourceZone    the zone of wall clock values, {@code null} for UTC, only applied to datetime columns
+     * @param onFailure     what values that cannot be converted become
+     * @param defaultValue  the value to convert {@code null} to, or {@code null} to keep it
+     */
+    ColumnConverter(TemporalFormatter formatter, TemporalKind kind, TypeHandler handler, int timePrecision,
+            OutputMode output, ZoneOffsetCache sourceZone, FailurePolicy onFailure, Object defaultValue) {
+        this(new Conversion(formatter, kind, handler, timePrecision, output, sourceZone, onFailure, defaultValue));
+    }
+
+    /**
+     * A converter of another column converting the same way as the one {@code conversion} was taken from, with a
+     * shape and failure counts of its own.
+     */
+    ColumnConverter(Conversion conversion) {
+        this.conversion = conversion;
+    }
+
+    /**
+     * What the column's values are converted with, everything but the shape it learned and its failure counts.
+     */
+    static final class Conversion {
+        private final TemporalFormatter formatter;
+        private final TemporalKind kind;
+        private final boolean isTime;
+        // Only set if the column's type handler normalizes its values
+        private final TypeHandler normalizer;
+        // Whether textual values may carry an offset
+        private final boolean hasOffset;
+        private final int timePrecision;
+        private final OutputMode output;
+        // Only set for time columns printed as strings with a format of elapsed time fields
+        private final TimePrinter timePrinter;
+        // Whether H:mm:ss text is an elapsed time, for time columns that do not print a date
+        private final boolean parsesElapsed;
+        // Only set for datetime columns whose wall clock values are not UTC
+        private final ZoneOffsetCache sourceZone;
+        private final FailurePolicy onFailure;
+        private final Object nullValue;
+
+        private Conversion(TemporalFormatter formatter, TemporalKind kind, TypeHandler handler, int timePrecision,
+                OutputMode output, ZoneOffsetCache sourceZone, FailurePolicy onFailure, Object defaultValue) {
+            this.formatter = formatter;
+            this.kind = kind;
+            this.isTime = kind == TemporalKind.TIME;
+            this.normalizer = handler != null && normalizes(handler) ? handler : null;
+            this.hasOffset = handler != null && handler.hasOffset();
+            this.timePrecision = timePrecision;
+            this.output = output;
+            this.timePrinter = this.isTime && output == OutputMode.STRING ? formatter.timePrinter() : null;
+            this.parsesElapsed = this.timePrinter != null || (this.isTime && output != OutputMode.STRING);
+            this.sourceZone = kind == TemporalKind.DATETIME ? sourceZone : null;
+            this.onFailure = onFailure;
+            // Read by a throwaway converter, the default value says nothing about the shape of the column's values
+            this.nullValue = defaultValue == null ? null : new ColumnConverter(this).convertDefault(defaultValue);
+        }
+    }
+
+    /**
+     * @return what the column's values are converted with, to convert another column's the same way
+     */
+    Conversion conversion() {
+        return this.conversion;
+    }
+
+    @Override
+    public Object convert(Object rawValue) {
+        if (rawValue == null)
+            return this.conversion.nullValue;
+
+        EpochTime time = EpochTime.current();
+        ParseStatus status = read(rawValue, time);
+        time.status = status;
+        return status == ParseStatus.OK ? encode(time) : unconverted(rawValue, status);
+    }
+
+    /**
+     * Converts the first {@code count} textual raw values into {@code out}, exactly like converting them one by one
+     * would. A {@code null} value becomes the column's converted default value.
+     *
+     * @throws DateTimeException if a value cannot be converted and the column's failure policy is to fail
+     */
+    public void convert(CharSequence[] rawValues, int count, Object[] out) {
+        if (this.conversion.normalizer != null) {
+            for (int i = 0; i < count; i++)
+                out[i] = convert(rawValues[i] == null ? null : rawValues[i].toString());
+            return;
+        }
+
+        EpochTime time = EpochTime.current();
+        for (int i = 0; i < count; i++) {
+            CharSequence rawValue = rawValues[i];
+            if (rawValue == null) {
+                out[i] = this.conversion.nullValue;
+                continue;
+            }
+            ParseStatus status = textToEpochTime(rawValue, time);
+            out[i] = status == ParseStatus.OK ? encode(time) : unconverted(rawValue, status);
+        }
+    }
+
+    /**
+     * Converts the first {@code count} numeric raw values (epoch days, millis, micros or nanos, or times of the day)
+     * into {@code out}, exactly like converting them one by one would.
+     *
+     * @throws DateTimeException if a value cannot be converted and the column's failure policy is to fail
+     */
+    public void convert(long[] rawValues, int count, Object[] out) {
+        EpochTime time = EpochTime.current();
+        for (int i = 0; i < count; i++) {
+            long rawValue = rawValues[i];
+            ParseStatus status = numberToEpochTime(rawValue, time);
+            out[i] = status == ParseStatus.OK ? encode(time) : unconverted(rawValue, status);
+        }
+    }
+
+    /**
+     * Converts the first {@code count} numeric raw values into {@code out} without boxing them, as the numbers the
+     * {@link OutputMode#MILLIS} or {@link OutputMode#MICROS} output emits (int32 values widened).
+     *
+     * @throws UnsupportedOperationException if the column's output is not numeric
+     * @throws DateTimeException               if a value cannot be converted, whatever the failure policy since a
+     *                                         {@code long} has no room for a replacement
+     */
+    public void convert(long[] rawValues, int count, long[] out) {
+        OutputMode output = this.conversion.output;
+        if (output != OutputMode.MILLIS && output != OutputMode.MICROS)
+            throw new UnsupportedOperationException("Output mode " + output + " has no numeric encoding");
+
+        EpochTime time = EpochTime.current();
+        for (int i = 0; i < count; i++) {
+            long rawValue = rawValues[i];
+            ParseStatus status = numberToEpochTime(rawValue, time);
+            if (status != ParseStatus.OK) {
+                if (status.failed())
+                    countFailure(status);
+                throw status.exception(rawValue);
+            }
+            if (time.local && this.conversion.sourceZone != null)
+                time.seconds = this.conversion.sourceZone.toEpochSecond(time.seconds);
+            out[i] = output.encodeLong(time, this.conversion.kind);
+        }
+    }
+
+    /**
+     * @return how the column's values are emitted
+     */
+    public OutputMode output() {
+        return this.conversion.output;
+    }
+
+    /**
+     * @return a new builder for the schema of the converted values
+     */
+    SchemaBuilder schema() {
+        return this.conversion.output.schema(this.conversion.kind);
+    }
+
+    /**
+     * @return how many values could not be converted, by why, only listing the statuses that occurred
+     */
+    Map<ParseStatus, Long> failures() {
+        Map<ParseStatus, Long> failures = new EnumMap<>(ParseStatus.class);
+        LongAdder[] counts = this.failures;
+        if (counts == null)
+            return failures;
+        for (ParseStatus status : ParseStatus.values()) {
+            long count = counts[status.ordinal()].sum();
+            if (count > 0)
+                failures.put(status, count);
+        }
+        return failures;
+    }
+
+    private void countFailure(ParseStatus status) {
+        LongAdder[] failures = this.failures;
+        if (failures == null)
+            failures = newFailures();
+        failures[status.ordinal()].increment();
+    }
+
+    private synchronized LongAdder[] newFailures() {
+        // Another thread may have failed first
+        if (this.failures == null) {
+            LongAdder[] failures = new LongAdder[ParseStatus.values().length];
+            for (int i = 0; i < failures.length; i++)
+                failures[i] = new LongAdder();
+            this.failures = failures;
+        }
+        return this.failures;
+    }
+
+    private ParseStatus read(Object rawValue, EpochTime into) {
+        Object value = this.conversion.normalizer == null ? rawValue : this.conversion.normalizer.normalize(rawValue);
+        if (value == null)
+            return ParseStatus.EMPTY;
+        if (value == TypeHandler.INVALID)
+            return ParseStatus.INVALID_FIELDS;
+        return value instanceof String ? textToEpochTime((String) value, into)
+                : this.conversion.hasOffset ? offsetToEpochTime(value, into)
+                        : toEpochTime(value, this.conversion.isTime, this.conversion.timePrecision, into);
+    }
+
+    private ParseStatus numberToEpochTime(long rawValue, EpochTime into) {
+        if (this.conversion.normalizer != null) {
+            Object value = this.conversion.normalizer.normalize(rawValue);
+            if (value == null)
+                return ParseStatus.EMPTY;
+            if (value == TypeHandler.INVALID)
+                return ParseStatus.INVALID_FIELDS;
+            return toEpochTime(value, this.conversion.isTime, this.conversion.timePrecision, into);
+        }
+        fromNumber(rawValue, digitCount(rawValue), this.conversion.isTime, this.conversion.timePrecision, into);
+        return ParseStatus.OK;
+    }
+
+    /**
+     * Reads values of a type with offsets: offset date times are instants, and so is text with an offset.
+     */
+    private ParseStatus offsetToEpochTime(Object value, EpochTime into) {
+        if (value instanceof OffsetDateTime)
+            into.set(((OffsetDateTime) value).toEpochSecond(), ((OffsetDateTime) value).getNano());
+        else if (value instanceof ZonedDateTime)
+            into.set(((ZonedDateTime) value).toEpochSecond(), ((ZonedDateTime) value).getNano());
+        else if (value instanceof Number || value instanceof java.util.Date || value instanceof TemporalAccessor)
+            return toEpochTime(value, this.conversion.isTime, this.conversion.timePrecision, into);
+        else
+            // Vendor offset types, such as SQL Server's DateTimeOffset, render as text with their offset
+            return offsetTextToEpochTime(value.toString(), into);
+        return ParseStatus.OK;
+    }
+
+    private ParseStatus offsetTextToEpochTime(String text, EpochTime into) {
+        if (text.indexOf(':') < 0 && text.indexOf('-') < 0)
+            return toEpochTime(text, this.conversion.isTime, this.conversion.timePrecision, into);
+        return TemporalParser.tryParseWithOffset(text, into);
+    }
+
+    /**
+     * @return whether the handler overrides {@link TypeHandler#normalize}
+     */
+    private static boolean normalizes(TypeHandler handler) {
+        try {
+            return handler.getClass().getMethod("normalize", Object.class).getDeclaringClass() != TypeHandler.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Object encode(EpochTime time) {
+        if (time.elapsed && this.conversion.timePrinter != null)
+            return this.conversion.timePrinter.print(time.seconds, time.nanos);
+        if (time.local && this.conversion.sourceZone != null)
+            time.seconds = this.conversion.sourceZone.toEpochSecond(time.seconds);
+        return this.conversion.output.encode(time, this.conversion.kind, this.conversion.formatter);
+    }
+
+    /**
+     * @return what a value that could not be read becomes, counting it if it is a failure
+     */
+    private Object unconverted(Object rawValue, ParseStatus status) {
+        if (!status.failed())
+            return passThrough(rawValue);
+
+        countFailure(status);
+        switch (this.conversion.onFailure) {
+            case PASSTHROUGH:
+                return passThrough(rawValue);
+            case NULL:
+                return null;
+            case DEFAULT:
+                return this.conversion.nullValue;
+            default:
+                throw status.exception(rawValue);
+        }
+    }
+
+    private Object passThrough(Object rawValue) {
+        // Only a string schema can pass the value through unconverted
+        return this.conversion.output == OutputMode.STRING ? rawValue.toString() : null;
+    }
+
+    /**
+     * @return the shape learned from the column's string values, {@code null} if it had none yet
+     */
+    InputShape detectedShape() {
+        return this.shape;
+    }
+
+    /**
+     * @return how many times the learned shape was replaced by another one
+     */
+    long shapeChanges() {
+        return this.shapeChanges.sum();
+    }
+
+    private ParseStatus textToEpochTime(CharSequence text, EpochTime into) {
+        if (this.conversion.hasOffset)
+            return offsetTextToEpochTime(text.toString(), into);
+
+        InputShape learned = this.shape;
+        if (this.conversion.parsesElapsed) {
+            // Before the learned shape's guard, which may let 838:59:59 through to a date parser
+            ParseStatus status = TemporalParser.tryParseElapsed(text, into);
+            if (status != null) {
+                if (learned != InputShape.TIME_OF_DAY)
+                    learn(learned, InputShape.TIME_OF_DAY);
+                return status;
+            }
+        }
+        if (learned != null) {
+            ParseStatus status = toEpochTime(learned, text, into);
+            if (status != null)
+                return status;
+        }
+
+        String string = text.toString();
+        InputShape detected = InputShape.ofText(string, this.conversion.isTime);
+        if (detected != learned && detected != InputShape.BLANK)
+            learn(learned, detected);
+        return toEpochTime(string, this.conversion.isTime, this.conversion.timePrecision, into);
+    }
+
+    private void learn(InputShape learned, InputShape detected) {
+        if (learned != null)
+            this.shapeChanges.increment();
+        this.shape = detected;
+    }
+
+    /**
+     * The specialized path of a learned shape.
+     *
+     * @return {@code null} if {@code text} does not pass the shape's guard, leaving {@code into} unchanged
+     */
+    private ParseStatus toEpochTime(InputShape learned, CharSequence text, EpochTime into) {
+        int length = text.length();
+        switch (learned) {
+            case MILLIS_OF_DAY:
+            case EPOCH_DAYS:
+            case EPOCH_MILLIS:
+            case EPOCH_MICROS:
+            case EPOCH_NANOS:
+                // Up to 18 digits cannot overflow, the general path handles longer numbers
+                if (length == 0 || length > 18)
+                    return null;
+                long value = 0;
+                for (int i = 0; i < length; i++) {
+                    char c = text.charAt(i);
+                    if (c < '0' || c > '9')
+                        return null;
+                    value = value * 10 + (c - '0');
+                }
+                fromNumber(value, length, this.conversion.isTime, this.conversion.timePrecision, into);
+                return ParseStatus.OK;
+            case ISO:
+                return TemporalParser.tryParseIso(text, into);
+            // The guards below make sure the general path would parse the text too
+            case DAY_MONTH_NAME_YEAR:
+                if (length < 3 || (text.charAt(1) != '-' && text.charAt(2) != '-'))
+                    return null;
+                break;
+            case TIME_OF_DAY:
+                if (length < 3 || (text.charAt(1) != ':' && text.charAt(2) != ':'))
+                    return null;
+                break;
+            case DAY_MONTH_YEAR:
+                if (!contains(text, ':'))
+                    return null;
+                break;
+            default:
+                return null;
+        }
+        return TemporalParser.tryParse(text, into);
+    }
+
+    private static boolean contains(CharSequence text, char c) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == c)
+                return true;
+        }
+        return false;
+    }
+
+    private Object convertDefault(Object defaultValue) {
+        EpochTime time = EpochTime.current();
+        if (read(defaultValue, time) == ParseStatus.OK)
+            return encode(time);
+        // Defaults such as "0000-00-00 00:00:00" have no valid conversion, keep them as they are if the schema allows
+        // it, they are neither failures of the column's values nor subject to its policy
+        return passThrough(defaultValue);
+    }
+
+    /**
+     * Takes the epoch seconds and nanos straight from the temporal types the connectors hand over, falling back to
+     * parsing the value's string representation for anything else.
+     *
+     * @return {@link ParseStatus#OK}, or why the value could not be read, in which case {@code into} is undefined
+     */
+    static ParseStatus toEpochTime(Object rawValue, boolean isTime, int timePrecision, EpochTime into) {
+        if (rawValue instanceof String)
+            return toEpochTime((String) rawValue, isTime, timePrecision, into);
+        if (rawValue instanceof Long || rawValue instanceof Integer) {
+            long value = ((Number) rawValue).longValue();
+            fromNumber(value, digitCount(value), isTime, timePrecision, into);
+            return ParseStatus.OK;
+        }
+        // java.sql types render in the JVM time zone, keep reading their wall clock as UTC like their strings were
+        if (rawValue instanceof Timestamp)
+            fromLocalDateTime(((Timestamp) rawValue).toLocalDateTime(), into);
+        else if (rawValue instanceof java.sql.Date)
+            into.setLocal(((java.sql.Date) rawValue).toLocalDate().toEpochDay() * EpochTime.SECONDS_PER_DAY, 0);
+        else if (rawValue instanceof Time)
+            into.setLocal(TemporalParser.DEFAULT_DATE_SECONDS + ((Time) rawValue).toLocalTime().toSecondOfDay(), 0);
+        else if (rawValue instanceof java.util.Date)
+            // Kafka Connect's logical Date, Time and Timestamp values, which are instants
+            into.setMillis(((java.util.Date) rawValue).getTime());
+        else if (rawValue instanceof Instant)
+            into.set(((Instant) rawValue).getEpochSecond(), ((Instant) rawValue).getNano());
+        else if (rawValue instanceof LocalDateTime)
+            fromLocalDateTime((LocalDateTime) rawValue, into);
+        else if (rawValue instanceof LocalDate)
+            into.setLocal(((LocalDate) rawValue).toEpochDay() * EpochTime.SECONDS_PER_DAY, 0);
+        else if (rawValue instanceof LocalTime)
+            into.setLocal(TemporalParser.DEFAULT_DATE_SECONDS + ((LocalTime) rawValue).toSecondOfDay(),
+                    ((LocalTime) rawValue).getNano());
+        else if (rawValue instanceof Duration)
+            into.setElapsed(((Duration) rawValue).getSeconds(), ((Duration) rawValue).getNano());
+        else
+            return toEpochTime(rawValue.toString(), isTime, timePrecision, into);
+        return ParseStatus.OK;
+    }
+
+    private static ParseStatus toEpochTime(String timestamp, boolean isTime, int timePrecision, EpochTime into) {
+        if (timestamp.isBlank())
+            return ParseStatus.EMPTY;
+
+        if (timestamp.indexOf(':') >= 0 || timestamp.indexOf('-') >= 0)
+            return TemporalParser.tryParse(timestamp, into);
+
+        // Long.parseLong without its exception, values such as "infinity" are common enough in dirty columns
+        int length = timestamp.length();
+        int start = timestamp.charAt(0) == '+' ? 1 : 0;
+        if (start == length)
+            return ParseStatus.MALFORMED;
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            int digit = timestamp.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10)
+                return ParseStatus.MALFORMED;
+            value = value * 10 + digit;
+        }
+        fromNumber(value, length, isTime, timePrecision, into);
+        return ParseStatus.OK;
+    }
+
+    /**
+     * Interprets a number as epoch days, epoch millis or a finer epoch precision according to its length, or as
+     * an elapsed time in the column's precision.
+     */
+    private static void fromNumber(long value, int length, boolean isTime, int timePrecision, EpochTime into) {
+        if (isTime) {
+            into.setScaled(value, timePrecision);
+            into.setElapsed(into.seconds, into.nanos);
+            return;
+        }
+
+        int excessLength = length - TimestampConverter.MILLIS_LENGTH;
+        if (excessLength < 0)
+            // Days are a calendar date, the rest are instants
+            into.setLocal(value * EpochTime.SECONDS_PER_DAY, 0);
+        else
+            into.setScaled(value, 3 + excessLength);
+    }
+
+    private static void fromLocalDateTime(LocalDateTime dateTime, EpochTime into) {
+        into.setLocal(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano());
+    }
+
+    static int digitCount(long value) {
+        int count = 1;
+        long remaining = Math.abs(value / 10);
+        while (remaining > 0) {
+            remaining /= 10;
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,162 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The formats, time precision, time zones, output modes and failure policy columns are converted with: the connector
+ * wide settings, or those of a {@code rules.<n>} override.
+ * <p>
+ * A rule only has to set what it changes, everything else (including the formatter instances, so their caches stay
+ * shared) comes from the connector wide profile.
+ */
+final class ConversionProfile {
+
+    final String datetimeFormat, dateFormat, timeFormat;
+    // Whether format.datetime is set, rather than defaulted for the target zone
+    final boolean datetimeFormatSet;
+    final TemporalFormatter datetimeFormatter, dateFormatter, timeFormatter;
+    final int timePrecision;
+    // The zone wall clock datetime values are read in, null for UTC
+    final ZoneOffsetCache sourceZone;
+    // The zone datetime values are rendered in
+    final ZoneId targetZone;
+    // Keyed by the lower case supported type name
+    final Map<String, OutputMode> outputModes;
+    // What values that cannot be converted become
+    final FailurePolicy onFailure;
+    // The memo caches of the profile's column types, created on first use
+    final Map<String, MemoCache> memoCaches = new ConcurrentHashMap<>();
+
+    private ConversionProfile(String datetimeFormat, boolean datetimeFormatSet, TemporalFormatter datetimeFormatter,
+            String dateFormat, TemporalFormatter dateFormatter, String timeFormat, TemporalFormatter timeFormatter,
+            int timePrecision, ZoneOffsetCache sourceZone, ZoneId targetZone, Map<String, OutputMode> outputModes,
+            FailurePolicy onFailure) {
+        this.datetimeFormat = datetimeFormat;
+        this.datetimeFormatSet = datetimeFormatSet;
+        this.datetimeFormatter = datetimeFormatter;
+        this.dateFormat = dateFormat;
+        this.dateFormatter = dateFormatter;
+        this.timeFormat = timeFormat;
+        this.timeFormatter = timeFormatter;
+        this.timePrecision = timePrecision;
+        this.sourceZone = sourceZone;
+        this.targetZone = targetZone;
+        this.outputModes = outputModes;
+        this.onFailure = onFailure;
+    }
+
+    /**
+     * @return the connector wide profile
+     * @throws IllegalArgumentException if a format, precision, time zone, output mode or failure policy is invalid
+     */
+    static ConversionProfile of(Properties props, int formatCacheSize) {
+        ZoneId targetZone = zone(props.getProperty("target.timezone", "UTC"));
+        String configuredFormat = props.getProperty("format.datetime");
+        String datetimeFormat = configuredFormat == null ? defaultDatetimeFormat(targetZone) : configuredFormat;
+        String dateFormat = props.getProperty("format.date", TimestampConverter.DEFAULT_DATE_FORMAT);
+        String timeFormat = props.getProperty("format.time", TimestampConverter.DEFAULT_TIME_FORMAT);
+        return new ConversionProfile(datetimeFormat, configuredFormat != null,
+                TemporalFormatter.ofPattern(datetimeFormat, formatCacheSize, targetZone), dateFormat,
+                TemporalFormatter.ofPattern(dateFormat, formatCacheSize), timeFormat,
+                TemporalFormatter.ofPattern(timeFormat), precision(props.getProperty("time.precision", "millis")),
+                ZoneOffsetCache.of(zone(props.getProperty("source.timezone", "UTC"))), targetZone,
+                outputModes(props, "", props.getProperty("output.mode", "string"), Map.of()),
+                FailurePolicy.of(props.getProperty("on.failure", "fail")));
+    }
+
+    /**
+     * @param prefix the rule's property prefix, e.g. {@code rules.1.}
+     * @return the profile of a rule, falling back to this profile for every setting the rule does not have
+     */
+    ConversionProfile override(Properties props, String prefix, int formatCacheSize) {
+        String configuredFormat = props.getProperty(prefix + "format.datetime");
+        String dateFormat = props.getProperty(prefix + "format.date", this.dateFormat);
+        String timeFormat = props.getProperty(prefix + "format.time", this.timeFormat);
+        String timePrecision = props.getProperty(prefix + "time.precision");
+        String outputMode = props.getProperty(prefix + "output.mode");
+        String sourceZone = props.getProperty(prefix + "source.timezone");
+        String targetZone = props.getProperty(prefix + "target.timezone");
+        String onFailure = props.getProperty(prefix + "on.failure");
+        ZoneId target = targetZone == null ? this.targetZone : zone(targetZone);
+        String datetimeFormat = configuredFormat != null ? configuredFormat
+                : this.datetimeFormatSet ? this.datetimeFormat : defaultDatetimeFormat(target);
+        return new ConversionProfile(datetimeFormat, configuredFormat != null || this.datetimeFormatSet,
+                datetimeFormat.equals(this.datetimeFormat) && target.equals(this.targetZone) ? this.datetimeFormatter
+                        : TemporalFormatter.ofPattern(datetimeFormat, formatCacheSize, target),
+                dateFormat,
+                dateFormat.equals(this.dateFormat) ? this.dateFormatter
+                        : TemporalFormatter.ofPattern(dateFormat, formatCacheSize),
+                timeFormat,
+                timeFormat.equals(this.timeFormat) ? this.timeFormatter : TemporalFormatter.ofPattern(timeFormat),
+                timePrecision == null ? this.timePrecision : precision(timePrecision),
+                sourceZone == null ? this.sourceZone : ZoneOffsetCache.of(zone(sourceZone)), target,
+                outputModes(props, prefix, outputMode, this.outputModes),
+                onFailure == null ? this.onFailure : FailurePolicy.of(onFailure));
+    }
+
+    /**
+     * @return the default datetime format of a target zone, with its offset unless it is UTC
+     */
+    private static String defaultDatetimeFormat(ZoneId targetZone) {
+        return targetZone.normalized().equals(ZoneOffset.UTC) ? TimestampConverter.DEFAULT_DATETIME_FORMAT
+                : TimestampConverter.DEFAULT_ZONED_DATETIME_FORMAT;
+    }
+
+    /**
+     * @return the memo cache shared by the profile's columns of a type
+     */
+    MemoCache memoCache(String typeName, TemporalKind kind, int capacity) {
+        return this.memoCaches.computeIfAbsent(typeName + " (" + kind + ")", key -> new MemoCache(capacity));
+    }
+
+    TemporalFormatter formatter(TemporalKind kind) {
+        switch (kind) {
+            case DATE:
+                return this.dateFormatter;
+            case TIME:
+                return this.timeFormatter;
+            default:
+                return this.datetimeFormatter;
+        }
+    }
+
+    /**
+     * @param outputMode the mode of every type without its own setting, or {@code null} to keep {@code inherited}
+     */
+    private static Map<String, OutputMode> outputModes(Properties props, String prefix, String outputMode,
+            Map<String, OutputMode> inherited) {
+        Map<String, OutputMode> outputModes = new HashMap<>();
+        for (String type : TypeHandlers.typeNames()) {
+            String mode = props.getProperty(prefix + "output.mode." + type, outputMode);
+            outputModes.put(type, mode == null ? inherited.get(type) : OutputMode.of(mode));
+        }
+        return outputModes;
+    }
+
+    private static ZoneId zone(String id) {
+        try {
+            return ZoneId.of(id);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unsupported time zone: " + id, e);
+        }
+    }
+
+    private static int precision(String unit) {
+        switch (unit) {
+            case "millis":
+                return 3;
+            case "micros":
+                return 6;
+            case "nanos":
+                return 9;
+            default:
+                throw new IllegalArgumentException("Unsupported time.precision: " + unit);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conversion counters of a column type or a single column.
+ * <p>
+ * Every counter is a {@link LongAdder}, so snapshot threads recording into the same instance do not contend. The
+ * getters sum the adders when read through JMX.
+ */
+public final class ConversionStatistics {
+
+    // Latency bucket i counts conversions that took [2^i, 2^(i+1)) nanoseconds
+    private static final int LATENCY_BUCKETS = 40;
+
+    private final LongAdder conversions = new LongAdder();
+    private final LongAdder nulls = new LongAdder();
+    private final LongAdder defaults = new LongAdder();
+    private final LongAdder passthroughs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAdder[] shapes = newAdders(InputShape.values().length);
+    private final LongAdder[] latencies = newAdders(LATENCY_BUCKETS);
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++)
+            adders[i] = new LongAdder();
+        return adders;
+    }
+
+    /**
+     * @param status    how the value was read, {@code null} for a {@code null} value
+     * @param onFailure what the values that could not be read were returned as
+     * @param hasResult whether the conversion returned a value rather than {@code null}
+     */
+    void record(InputShape shape, ParseStatus status, FailurePolicy onFailure, boolean hasResult, long latencyNanos) {
+        this.conversions.increment();
+        this.shapes[shape.ordinal()].increment();
+        if (status == null) {
+            this.nulls.increment();
+            if (hasResult)
+                this.defaults.increment();
+        } else if (status.failed()) {
+            this.failures.increment();
+            if (hasResult && onFailure == FailurePolicy.PASSTHROUGH)
+                this.passthroughs.increment();
+            else if (hasResult && onFailure == FailurePolicy.DEFAULT)
+                this.defaults.increment();
+        } else if (status != ParseStatus.OK && hasResult) {
+            this.passthroughs.increment();
+        }
+        this.totalLatencyNanos.add(latencyNanos);
+        this.latencies[Math.min(LATENCY_BUCKETS - 1, 63 - Long.numberOfLeadingZeros(Math.max(1, latencyNanos)))]
+                .increment();
+    }
+
+    /**
+     * Records a conversion that threw, under the {@link FailurePolicy#FAIL} policy.
+     */
+    void recordFailure(InputShape shape) {
+        this.conversions.increment();
+        this.shapes[shape.ordinal()].increment();
+        this.failures.increment();
+    }
+
+    public long getConversions() {
+        return this.conversions.sum();
+    }
+
+    public long getNulls() {
+        return this.nulls.sum();
+    }
+
+    /**
+     * @return {@code null} values, and values that could not be converted under the default failure policy, returned
+     *         as the column's default value
+     */
+    public long getDefaults() {
+        return this.defaults.sum();
+    }
+
+    /**
+     * @return values returned unconverted, because they have no temporal content or could not be converted under the
+     *         passthrough failure policy
+     */
+    public long getPassthroughs() {
+        return this.passthroughs.sum();
+    }
+
+    /**
+     * @return values that could not be converted, whatever they were returned as
+     */
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    public Map<String, Long> getShapes() {
+        Map<String, Long> shapes = new LinkedHashMap<>();
+        for (InputShape shape : InputShape.values()) {
+            long count = this.shapes[shape.ordinal()].sum();
+            if (count > 0)
+                shapes.put(shape.name(), count);
+        }
+        return shapes;
+    }
+
+    /**
+     * @return conversion counts keyed by the upper bound of their latency bucket, in nanoseconds
+     */
+    public Map<String, Long> getLatencyHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            long count = this.latencies[i].sum();
+            if (count > 0)
+                histogram.put("<" + (1L << (i + 1)), count);
+        }
+        return histogram;
+    }
+
+    public long getMeanLatencyNanos() {
+        long count = 0;
+        for (LongAdder latency : this.latencies)
+            count += latency.sum();
+        return count == 0 ? 0 : this.totalLatencyNanos.sum() / count;
+    }
+
+    public long getLatencyP50Nanos() {
+        return latencyPercentile(0.5);
+    }
+
+    public long getLatencyP99Nanos() {
+        return latencyPercentile(0.99);
+    }
+
+    /**
+     * @return the upper bound of the bucket the percentile falls in
+     */
+    private long latencyPercentile(double percentile) {
+        long[] counts = new long[LATENCY_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++)
+            total += counts[i] = this.latencies[i].sum();
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0)
+                return 1L << (i + 1);
+        }
+        return 0;
+    }
+
+    void reset() {
+        for (LongAdder adder : new LongAdder[] { this.conversions, this.nulls, this.defaults, this.passthroughs,
+                this.failures, this.totalLatencyNanos })
+            adder.reset();
+        for (LongAdder adder : this.shapes)
+            adder.reset();
+        for (LongAdder adder : this.latencies)
+            adder.reset();
+    }
+}
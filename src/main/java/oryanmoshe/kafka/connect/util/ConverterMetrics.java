@@ -0,0 +1,132 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Per column type (and optionally per column) conversion statistics of a converter instance.
+ */
+final class ConverterMetrics implements ConverterMetricsMXBean {
+
+    static final String DOMAIN = "oryanmoshe.kafka.connect.util";
+    private static final String TYPE = "TimestampConverter";
+
+    private final ConcurrentMap<String, ConversionStatistics> columnTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConversionStatistics> columns;
+    private final Supplier<Map<String, String>> detectedShapes;
+    private final Supplier<Map<String, Map<String, Long>>> parseFailures;
+    private final List<String> fallbackFormats;
+    private ObjectName objectName;
+
+    /**
+     * @param fallbackFormats the configured formats rendered by the general formatter, fixed until the converter is
+     *                        configured again
+     */
+    ConverterMetrics(boolean perColumn, Supplier<Map<String, String>> detectedShapes,
+            Supplier<Map<String, Map<String, Long>>> parseFailures, List<String> fallbackFormats) {
+        this.columns = perColumn ? new ConcurrentHashMap<>() : null;
+        this.detectedShapes = detectedShapes;
+        this.parseFailures = parseFailures;
+        this.fallbackFormats = List.copyOf(fallbackFormats);
+    }
+
+    ConversionStatistics columnType(String typeName) {
+        return this.columnTypes.computeIfAbsent(typeName, k -> new ConversionStatistics());
+    }
+
+    /**
+     * @return the column's statistics, or {@code null} if only column types are tracked
+     */
+    ConversionStatistics column(String columnId) {
+        return this.columns == null ? null : this.columns.computeIfAbsent(columnId, k -> new ConversionStatistics());
+    }
+
+    @Override
+    public Map<String, ConversionStatistics> getColumnTypes() {
+        return new TreeMap<>(this.columnTypes);
+    }
+
+    @Override
+    public Map<String, ConversionStatistics> getColumns() {
+        return this.columns == null ? Collections.emptyMap() : new TreeMap<>(this.columns);
+    }
+
+    @Override
+    public Map<String, String> getDetectedShapes() {
+        return this.detectedShapes.get();
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> getParseFailures() {
+        return this.parseFailures.get();
+    }
+
+    @Override
+    public List<String> getFallbackFormats() {
+        return this.fallbackFormats;
+    }
+
+    @Override
+    public void reset() {
+        this.columnTypes.values().forEach(ConversionStatistics::reset);
+        if (this.columns != null)
+            this.columns.values().forEach(ConversionStatistics::reset);
+    }
+
+    /**
+     * Registers the MBean under {@code name}, or under {@code name-2}, {@code name-3}... if another converter
+     * already uses it.
+     */
+    void register(String name) throws JMException {
+        this.objectName = register(this, TYPE, name);
+    }
+
+    /**
+     * Registers an MBean of the converter under {@code name}, or under {@code name-2}, {@code name-3}... if another
+     * converter already uses it.
+     *
+     * @return the name it was registered under
+     */
+    static ObjectName register(Object mbean, String type, String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (int attempt = 1;; attempt++) {
+            ObjectName objectName = objectName(type, attempt == 1 ? name : name + "-" + attempt);
+            try {
+                server.registerMBean(mbean, objectName);
+                return objectName;
+            } catch (InstanceAlreadyExistsException e) {
+                // Try the next suffix
+            }
+        }
+    }
+
+    void unregister() throws JMException {
+        if (this.objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+            this.objectName = null;
+        }
+    }
+
+    ObjectName objectName() {
+        return this.objectName;
+    }
+
+    static ObjectName objectName(String name) throws JMException {
+        return objectName(TYPE, name);
+    }
+
+    static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+}
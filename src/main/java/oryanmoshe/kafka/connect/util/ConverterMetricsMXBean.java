@@ -0,0 +1,40 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JMX view of a {@link TimestampConverter}'s conversion statistics, registered as
+ * {@code oryanmoshe.kafka.connect.util:type=TimestampConverter,name=<metrics.name>}.
+ */
+public interface ConverterMetricsMXBean {
+
+    /**
+     * @return statistics keyed by column type name
+     */
+    Map<String, ConversionStatistics> getColumnTypes();
+
+    /**
+     * @return statistics keyed by {@code <table>.<column>}, empty unless {@code metrics.per.column} is enabled
+     */
+    Map<String, ConversionStatistics> getColumns();
+
+    /**
+     * @return the input shape each column learned from its string values, keyed by {@code <table>.<column>}
+     */
+    Map<String, String> getDetectedShapes();
+
+    /**
+     * @return how many values of each column could not be converted, keyed by {@code <table>.<column>} and then by
+     *         why, counted whatever the {@code on.failure} policy
+     */
+    Map<String, Map<String, Long>> getParseFailures();
+
+    /**
+     * @return the configured formats with fields that cannot be compiled, which are rendered by the slower general
+     *         formatter
+     */
+    List<String> getFallbackFormats();
+
+    void reset();
+}
@@ -0,0 +1,113 @@
+package oryanmoshe.kafka.connect.util;
+
+import io.debezium.spi.converter.CustomConverter;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Sampled tracing of the conversions of the columns matching {@code trace.columns}, the production safe alternative
+ * to {@code debug}: every traced column keeps its recent conversions in its own {@link TracingConverter} buffer, and
+ * nothing is printed until the buffers are dumped over JMX or flushed to the log.
+ */
+final class ConverterTracing implements ConverterTracingMXBean {
+
+    static final int DEFAULT_SAMPLE_EVERY = 100;
+    static final int DEFAULT_BUFFER_SIZE = 64;
+
+    private final int sampleEvery;
+    private final int bufferSize;
+    // null to trace every column
+    private final RuleIndex<Boolean> columns;
+    private final Map<String, TracingConverter> converters = new ConcurrentHashMap<>();
+    private ObjectName objectName;
+
+    private ConverterTracing(int sampleEvery, int bufferSize, RuleIndex<Boolean> columns) {
+        this.sampleEvery = sampleEvery;
+        this.bufferSize = bufferSize;
+        this.columns = columns;
+    }
+
+    /**
+     * @param debug whether {@code debug} is set, which traces every conversion unless {@code trace.sample.every} says
+     *              otherwise
+     * @return the tracing configured by the {@code trace.} settings, or {@code null} if neither {@code trace.enabled}
+     *         nor {@code debug} is set
+     * @throws IllegalArgumentException if the sampling or the buffer size is not positive
+     */
+    static ConverterTracing of(Properties props, boolean debug) {
+        if (!debug && !props.getProperty("trace.enabled", "false").equals("true"))
+            return null;
+
+        int sampleEvery = Integer.parseInt(props.getProperty("trace.sample.every",
+                String.valueOf(debug ? 1 : DEFAULT_SAMPLE_EVERY)));
+        int bufferSize = Integer.parseInt(props.getProperty("trace.buffer.size", String.valueOf(DEFAULT_BUFFER_SIZE)));
+        if (sampleEvery < 1 || bufferSize < 1)
+            throw new IllegalArgumentException("trace.sample.every and trace.buffer.size must be positive");
+
+        RuleIndex<Boolean> columns = null;
+        String patterns = props.getProperty("trace.columns", "").trim();
+        if (!patterns.isEmpty()) {
+            columns = new RuleIndex<>();
+            for (String pattern : patterns.split(","))
+                columns.add(pattern.trim(), 0, Boolean.TRUE);
+        }
+        return new ConverterTracing(sampleEvery, bufferSize, columns);
+    }
+
+    /**
+     * @return {@code converter} traced as the column, or as it is if the column is not traced
+     */
+    CustomConverter.Converter trace(String columnPath, boolean isTime, CustomConverter.Converter converter) {
+        if (this.columns != null && this.columns.lookup(columnPath) == null)
+            return converter;
+
+        TracingConverter tracing = new TracingConverter(converter, columnPath, isTime, this.sampleEvery,
+                this.bufferSize);
+        this.converters.put(columnPath, tracing);
+        return tracing;
+    }
+
+    @Override
+    public List<String> getRecentConversions() {
+        List<TracingConverter.Entry> entries = new ArrayList<>();
+        this.converters.values().forEach(converter -> entries.addAll(converter.entries()));
+        entries.sort(Comparator.comparingLong((TracingConverter.Entry entry) -> entry.epochMilli)
+                .thenComparing(entry -> entry.column).thenComparingLong(entry -> entry.sequence));
+        List<String> conversions = new ArrayList<>(entries.size());
+        entries.forEach(entry -> conversions.add(entry.toString()));
+        return conversions;
+    }
+
+    @Override
+    public int flushToLog() {
+        List<String> conversions = getRecentConversions();
+        for (String conversion : conversions)
+            System.out.printf("[TimestampConverter.trace] %s%n", conversion);
+        return conversions.size();
+    }
+
+    @Override
+    public void clear() {
+        this.converters.values().forEach(TracingConverter::clear);
+    }
+
+    void register(String name) throws JMException {
+        this.objectName = ConverterMetrics.register(this, "TimestampConverterTrace", name);
+    }
+
+    void unregister() throws JMException {
+        if (this.objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+            this.objectName = null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.util.List;
+
+/**
+ * JMX view of a {@link TimestampConverter}'s sampled conversion traces, registered as
+ * {@code oryanmoshe.kafka.connect.util:type=TimestampConverterTrace,name=<metrics.name>} when {@code trace.enabled}
+ * is set.
+ */
+public interface ConverterTracingMXBean {
+
+    /**
+     * @return the traced conversions still in the columns' buffers, oldest first, as
+     *         {@code <time> <table>.<column> [<input shape>] <raw value> -> <result> in <nanos> ns on <thread>}
+     */
+    List<String> getRecentConversions();
+
+    /**
+     * Prints the traced conversions to the worker's log.
+     *
+     * @return how many were printed
+     */
+    int flushToLog();
+
+    void clear();
+}
@@ -0,0 +1,67 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock free cache of the rendered date portion of a format, keyed by epoch day.
+ * <p>
+ * Direct mapped: every epoch day has exactly one slot and a newer day evicts whatever day shared it, so a band of
+ * consecutive days up to the capacity never collides. Entries are immutable, which makes the unsynchronized slot
+ * writes safe to publish across threads.
+ */
+final class EpochDayCache {
+
+    private static final class Entry {
+        final long epochDay;
+        final String value;
+
+        Entry(long epochDay, String value) {
+            this.epochDay = epochDay;
+            this.value = value;
+        }
+    }
+
+    private final Entry[] entries;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity the minimal number of days to hold, rounded up to a power of two
+     */
+    EpochDayCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.entries = new Entry[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return the cached value of {@code epochDay}, or {@code null} if it has to be rendered
+     */
+    String get(long epochDay) {
+        Entry entry = this.entries[(int) (epochDay & this.mask)];
+        if (entry != null && entry.epochDay == epochDay) {
+            this.hits.increment();
+            return entry.value;
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    void put(long epochDay, String value) {
+        int index = (int) (epochDay & this.mask);
+        Entry previous = this.entries[index];
+        if (previous != null && previous.epochDay != epochDay)
+            this.evictions.increment();
+        this.entries[index] = new Entry(epochDay, value);
+    }
+
+    int capacity() {
+        return this.entries.length;
+    }
+
+    CacheStatistics statistics() {
+        return new CacheStatistics(this.hits.sum(), this.misses.sum(), this.evictions.sum(), this.entries.length);
+    }
+}
@@ -0,0 +1,93 @@
+package oryanmoshe.kafka.connect.util;
+
+/**
+ * Mutable seconds and nanoseconds since the epoch (UTC), the fixed point representation values are normalized to
+ * between parsing and formatting.
+ * <p>
+ * Instances are per thread scratch space, see {@link #current()}, so a conversion does not allocate one.
+ */
+final class EpochTime {
+
+    static final int NANOS_PER_SECOND = 1_000_000_000;
+    static final long SECONDS_PER_DAY = 24L * 60 * 60;
+
+    /**
+     * {@code POWERS_OF_TEN[i]} is 10^i, for every power that fits a long.
+     */
+    static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private static final ThreadLocal<EpochTime> CURRENT = ThreadLocal.withInitial(EpochTime::new);
+
+    long seconds;
+    // Always within [0, NANOS_PER_SECOND), even before the epoch
+    int nanos;
+    // Whether the value is a wall clock without a zone rather than an instant, see setLocal
+    boolean local;
+    // Whether the value is an elapsed time, e.g. a MySQL TIME of 838:59:59, see setElapsed
+    boolean elapsed;
+    // How the thread's last conversion of a non null value read it, for the converters wrapping the column's
+    ParseStatus status = ParseStatus.OK;
+
+    /**
+     * @return the calling thread's scratch instance
+     */
+    static EpochTime current() {
+        return CURRENT.get();
+    }
+
+    EpochTime set(long seconds, int nanos) {
+        this.seconds = seconds;
+        this.nanos = nanos;
+        this.local = false;
+        this.elapsed = false;
+        return this;
+    }
+
+    /**
+     * Sets a wall clock value, e.g. parsed text or a {@link java.time.LocalDateTime}, counted as if it was UTC. It is
+     * only an instant once a {@code source.timezone} is applied, or when that zone is UTC.
+     */
+    EpochTime setLocal(long seconds, int nanos) {
+        set(seconds, nanos);
+        this.local = true;
+        return this;
+    }
+
+    /**
+     * Sets the value of a {@code time} column counted from midnight, which may be negative or reach past a day. It is
+     * printed as a time of the day unless the column's format only has elapsed time fields, see {@link TimePrinter}.
+     */
+    EpochTime setElapsed(long seconds, int nanos) {
+        setLocal(seconds, nanos);
+        this.elapsed = true;
+        return this;
+    }
+
+    EpochTime setMillis(long millis) {
+        return set(Math.floorDiv(millis, 1000L), (int) Math.floorMod(millis, 1000L) * 1_000_000);
+    }
+
+    /**
+     * Sets a value counted in units of 10^-{@code fractionDigits} seconds, e.g. 6 for microseconds.
+     */
+    EpochTime setScaled(long value, int fractionDigits) {
+        if (fractionDigits > 9) {
+            // Finer than nanoseconds, the extra digits are dropped
+            int excess = fractionDigits - 9;
+            value = excess < POWERS_OF_TEN.length ? value / POWERS_OF_TEN[excess] : 0;
+            fractionDigits = 9;
+        }
+        long unit = POWERS_OF_TEN[fractionDigits];
+        return set(Math.floorDiv(value, unit), (int) (Math.floorMod(value, unit) * POWERS_OF_TEN[9 - fractionDigits]));
+    }
+
+    long toMillis() {
+        return this.seconds * 1000L + this.nanos / 1_000_000;
+    }
+}
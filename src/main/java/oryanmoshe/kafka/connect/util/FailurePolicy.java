@@ -0,0 +1,27 @@
+package oryanmoshe.kafka.connect.util;
+
+/**
+ * What a value that cannot be converted becomes, configured with {@code on.failure} and
+ * {@code rules.<n>.on.failure}. Every failure is counted per column and {@link ParseStatus}, whatever the policy.
+ */
+enum FailurePolicy {
+    /** The raw value as a string with the string output, {@code null} with the others */
+    PASSTHROUGH,
+    /** {@code null} */
+    NULL,
+    /** The column's converted default value, {@code null} for optional columns */
+    DEFAULT,
+    /** A {@link java.time.DateTimeException}, which fails the task unless the connector tolerates errors */
+    FAIL;
+
+    /**
+     * @throws IllegalArgumentException if {@code name} is not a policy, ignoring case
+     */
+    static FailurePolicy of(String name) {
+        for (FailurePolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(name))
+                return policy;
+        }
+        throw new IllegalArgumentException("Unsupported on.failure: " + name);
+    }
+}
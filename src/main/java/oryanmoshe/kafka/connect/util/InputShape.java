@@ -0,0 +1,75 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.time.Duration;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+
+/**
+ * The shapes of raw values the converter recognizes, as reported by the metrics.
+ */
+public enum InputShape {
+    NULL,
+    BLANK,
+    /** A java.time or java.sql temporal object */
+    TEMPORAL_OBJECT,
+    /** A number in a time column, interpreted as a time of the day in the configured {@code time.precision} */
+    MILLIS_OF_DAY,
+    EPOCH_DAYS,
+    EPOCH_MILLIS,
+    EPOCH_MICROS,
+    EPOCH_NANOS,
+    /** {@code yyyy-M-d} with an optional time */
+    ISO,
+    /** {@code d/M/yyyy} with an optional time */
+    DAY_MONTH_YEAR,
+    /** {@code d-MMM-yyyy} with an optional time */
+    DAY_MONTH_NAME_YEAR,
+    /** A time without a date, or text the parser anchors on its default date */
+    TIME_OF_DAY;
+
+    /**
+     * Classifies a raw value the same way {@link ColumnConverter} dispatches it, without parsing it.
+     */
+    static InputShape of(Object rawValue, boolean isTime) {
+        if (rawValue == null)
+            return NULL;
+        if (rawValue instanceof String)
+            return ofText((String) rawValue, isTime);
+        if (rawValue instanceof Long || rawValue instanceof Integer) {
+            long value = ((Number) rawValue).longValue();
+            return isTime ? MILLIS_OF_DAY : ofEpochLength(ColumnConverter.digitCount(value));
+        }
+        if (rawValue instanceof Date || rawValue instanceof TemporalAccessor || rawValue instanceof Duration)
+            return TEMPORAL_OBJECT;
+
+        return ofText(rawValue.toString(), isTime);
+    }
+
+    static InputShape ofText(String text, boolean isTime) {
+        if (text.isBlank())
+            return BLANK;
+        if (text.indexOf(':') < 0 && text.indexOf('-') < 0)
+            return isTime ? MILLIS_OF_DAY : ofEpochLength(text.length());
+
+        int digits = 0;
+        while (digits < text.length() && text.charAt(digits) >= '0' && text.charAt(digits) <= '9')
+            digits++;
+        char separator = digits < text.length() ? text.charAt(digits) : 0;
+        if (digits == 4 && separator == '-')
+            return ISO;
+        if (digits > 0 && separator == '/')
+            return DAY_MONTH_YEAR;
+        if (digits > 0 && separator == '-')
+            return DAY_MONTH_NAME_YEAR;
+        return TIME_OF_DAY;
+    }
+
+    private static InputShape ofEpochLength(int length) {
+        int excessLength = length - TimestampConverter.MILLIS_LENGTH;
+        if (excessLength < 0)
+            return EPOCH_DAYS;
+        if (excessLength == 0)
+            return EPOCH_MILLIS;
+        return excessLength <= 3 ? EPOCH_MICROS : EPOCH_NANOS;
+    }
+}
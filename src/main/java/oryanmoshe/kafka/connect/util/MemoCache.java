@@ -0,0 +1,80 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock free memo of converted values, keyed by raw value, shared by the columns of a type.
+ * <p>
+ * Direct mapped like {@link EpochDayCache}, with immutable entries. A missed value is only admitted the second time
+ * in a row it misses its slot, so the one-off values of a high cardinality column pass through without evicting the
+ * repeated ones (sentinels such as {@code 1970-01-01 00:00:00} or {@code 9999-12-31}). Every hit returns the same
+ * output instance.
+ */
+final class MemoCache {
+
+    private static final class Entry {
+        final Object key;
+        final Object value;
+
+        Entry(Object key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final Entry[] entries;
+    // Hash of the last value that missed each slot, the admission filter
+    private final int[] candidates;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity the minimal number of values to hold, rounded up to a power of two
+     */
+    MemoCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.entries = new Entry[size];
+        this.candidates = new int[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return the converted value of {@code key}, or {@code null} if it has to be converted
+     */
+    Object get(Object key) {
+        Entry entry = this.entries[index(key.hashCode())];
+        if (entry != null && entry.key.equals(key)) {
+            this.hits.increment();
+            return entry.value;
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a converted value if its key passes the admission filter.
+     */
+    void offer(Object key, Object value) {
+        int hash = key.hashCode();
+        int index = index(hash);
+        if (this.candidates[index] != hash) {
+            this.candidates[index] = hash;
+            return;
+        }
+        Entry previous = this.entries[index];
+        if (previous != null)
+            this.evictions.increment();
+        this.entries[index] = new Entry(key, value);
+    }
+
+    private int index(int hash) {
+        // Spread the high bits, string hashes of similar values differ mostly in the low ones
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+
+    CacheStatistics statistics() {
+        return new CacheStatistics(this.hits.sum(), this.misses.sum(), this.evictions.sum(), this.entries.length);
+    }
+}
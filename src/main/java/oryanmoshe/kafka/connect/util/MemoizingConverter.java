@@ -0,0 +1,38 @@
+package oryanmoshe.kafka.connect.util;
+
+import io.debezium.spi.converter.CustomConverter;
+
+/**
+ * Answers repeated raw values of a column from its type's {@link MemoCache}.
+ * <p>
+ * Only strings and numbers are memoized, the other raw values are mutable or rarely repeat. Values that fail to
+ * convert are never cached: what they become depends on the column's failure policy and default value, which the
+ * columns sharing the cache do not all have, and each failure has to be counted.
+ */
+final class MemoizingConverter implements CustomConverter.Converter {
+
+    private final ColumnConverter delegate;
+    private final MemoCache cache;
+
+    MemoizingConverter(ColumnConverter delegate, MemoCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Object convert(Object rawValue) {
+        if (!(rawValue instanceof String) && !(rawValue instanceof Long) && !(rawValue instanceof Integer))
+            return this.delegate.convert(rawValue);
+
+        EpochTime time = EpochTime.current();
+        Object cached = this.cache.get(rawValue);
+        if (cached != null) {
+            time.status = ParseStatus.OK;
+            return cached;
+        }
+        Object result = this.delegate.convert(rawValue);
+        if (time.status == ParseStatus.OK)
+            this.cache.offer(rawValue, result);
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package oryanmoshe.kafka.connect.util;
+
+import io.debezium.spi.converter.CustomConverter;
+
+/**
+ * Records the shape, outcome and latency of every conversion of a column into its {@link ConversionStatistics}.
+ * <p>
+ * The outcome is the {@link ParseStatus} the column's converter left in {@link EpochTime#status}, so values that
+ * could not be converted count as failures whatever the column's failure policy returned for them.
+ */
+final class MeteredConverter implements CustomConverter.Converter {
+
+    private final CustomConverter.Converter delegate;
+    private final boolean isTime;
+    private final FailurePolicy onFailure;
+    private final ConversionStatistics typeStatistics;
+    private final ConversionStatistics columnStatistics;
+
+    /**
+     * @param delegate         the column's {@link ColumnConverter}, or a converter wrapping it
+     * @param onFailure        the column's failure policy
+     * @param columnStatistics the column's own statistics, or {@code null} if only its type is tracked
+     */
+    MeteredConverter(CustomConverter.Converter delegate, boolean isTime, FailurePolicy onFailure,
+            ConversionStatistics typeStatistics, ConversionStatistics columnStatistics) {
+        this.delegate = delegate;
+        this.isTime = isTime;
+        this.onFailure = onFailure;
+        this.typeStatistics = typeStatistics;
+        this.columnStatistics = columnStatistics;
+    }
+
+    @Override
+    public Object convert(Object rawValue) {
+        InputShape shape = InputShape.of(rawValue, this.isTime);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = this.delegate.convert(rawValue);
+        } catch (RuntimeException e) {
+            this.typeStatistics.recordFailure(shape);
+            if (this.columnStatistics != null)
+                this.columnStatistics.recordFailure(shape);
+            throw e;
+        }
+        long latencyNanos = System.nanoTime() - start;
+
+        ParseStatus status = rawValue == null ? null : EpochTime.current().status;
+        boolean hasResult = result != null;
+        this.typeStatistics.record(shape, status, this.onFailure, hasResult, latencyNanos);
+        if (this.columnStatistics != null)
+            this.columnStatistics.record(shape, status, this.onFailure, hasResult, latencyNanos);
+        return result;
+    }
+}
@@ -0,0 +1,137 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+
+/**
+ * How converted values are emitted, configured with {@code output.mode} and {@code output.mode.<type>}.
+ * <p>
+ * Every mode encodes the same normalized UTC {@link EpochTime}. The numeric modes use the semantic schema names
+ * Debezium gives its own temporal values, so sinks that understand those handle them without extra configuration.
+ */
+public enum OutputMode {
+    /** A string rendered with the column type's format */
+    STRING {
+        @Override
+        SchemaBuilder schema(TemporalKind kind) {
+            return SchemaBuilder.string();
+        }
+
+        @Override
+        Object encode(EpochTime time, TemporalKind kind, TemporalFormatter formatter) {
+            return formatter.format(time.seconds, time.nanos);
+        }
+    },
+    /** Kafka Connect's {@link Date}, {@link Time} and {@link Timestamp} logical types, with millisecond precision */
+    LOGICAL {
+        @Override
+        SchemaBuilder schema(TemporalKind kind) {
+            return kind == TemporalKind.DATE ? Date.builder() : kind == TemporalKind.TIME ? Time.builder()
+                    : Timestamp.builder();
+        }
+
+        @Override
+        Object encode(EpochTime time, TemporalKind kind, TemporalFormatter formatter) {
+            switch (kind) {
+                case DATE:
+                    return new java.util.Date(epochDay(time) * EpochTime.SECONDS_PER_DAY * 1000L);
+                case TIME:
+                    return new java.util.Date(millisOfDay(time));
+                default:
+                    return new java.util.Date(time.toMillis());
+            }
+        }
+    },
+    /** int32 epoch days for dates, int32 milliseconds of the day for times and int64 epoch millis otherwise */
+    MILLIS {
+        @Override
+        SchemaBuilder schema(TemporalKind kind) {
+            return kind == TemporalKind.DATE ? SchemaBuilder.int32().name(DATE_SCHEMA)
+                    : kind == TemporalKind.TIME ? SchemaBuilder.int32().name("io.debezium.time.Time")
+                            : SchemaBuilder.int64().name("io.debezium.time.Timestamp");
+        }
+
+        @Override
+        Object encode(EpochTime time, TemporalKind kind, TemporalFormatter formatter) {
+            long value = encodeLong(time, kind);
+            return kind == TemporalKind.DATETIME ? (Object) value : (Object) (int) value;
+        }
+
+        @Override
+        long encodeLong(EpochTime time, TemporalKind kind) {
+            switch (kind) {
+                case DATE:
+                    return epochDay(time);
+                case TIME:
+                    return millisOfDay(time);
+                default:
+                    return time.toMillis();
+            }
+        }
+    },
+    /** int32 epoch days for dates, int64 microseconds of the day for times and int64 epoch micros otherwise */
+    MICROS {
+        @Override
+        SchemaBuilder schema(TemporalKind kind) {
+            return kind == TemporalKind.DATE ? SchemaBuilder.int32().name(DATE_SCHEMA)
+                    : kind == TemporalKind.TIME ? SchemaBuilder.int64().name("io.debezium.time.MicroTime")
+                            : SchemaBuilder.int64().name("io.debezium.time.MicroTimestamp");
+        }
+
+        @Override
+        Object encode(EpochTime time, TemporalKind kind, TemporalFormatter formatter) {
+            long value = encodeLong(time, kind);
+            return kind == TemporalKind.DATE ? (Object) (int) value : (Object) value;
+        }
+
+        @Override
+        long encodeLong(EpochTime time, TemporalKind kind) {
+            switch (kind) {
+                case DATE:
+                    return epochDay(time);
+                case TIME:
+                    return Math.floorMod(time.seconds, EpochTime.SECONDS_PER_DAY) * 1_000_000L + time.nanos / 1000;
+                default:
+                    return time.seconds * 1_000_000L + time.nanos / 1000;
+            }
+        }
+    };
+
+    private static final String DATE_SCHEMA = "io.debezium.time.Date";
+
+    /**
+     * @return a new builder for the schema of a column of the given kind
+     */
+    abstract SchemaBuilder schema(TemporalKind kind);
+
+    abstract Object encode(EpochTime time, TemporalKind kind, TemporalFormatter formatter);
+
+    /**
+     * @return the number the numeric modes emit, without boxing it
+     * @throws UnsupportedOperationException if the mode is not numeric
+     */
+    long encodeLong(EpochTime time, TemporalKind kind) {
+        throw new UnsupportedOperationException("Output mode " + this + " has no numeric encoding");
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code name} is not a mode, ignoring case
+     */
+    static OutputMode of(String name) {
+        for (OutputMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name))
+                return mode;
+        }
+        throw new IllegalArgumentException("Unsupported output mode: " + name);
+    }
+
+    private static long epochDay(EpochTime time) {
+        return Math.floorDiv(time.seconds, EpochTime.SECONDS_PER_DAY);
+    }
+
+    private static int millisOfDay(EpochTime time) {
+        return (int) Math.floorMod(time.seconds, EpochTime.SECONDS_PER_DAY) * 1000 + time.nanos / 1_000_000;
+    }
+}
@@ -0,0 +1,58 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.time.DateTimeException;
+
+/**
+ * Outcome of reading a raw value, returned by the parsing paths instead of throwing, so that a column full of values
+ * that cannot be converted costs no more than one of valid values.
+ */
+enum ParseStatus {
+    /** The value was read */
+    OK(null),
+    /** Nothing to read, such as a blank string, which is passed through rather than counted as a failure */
+    EMPTY("No temporal content in "),
+    /** Neither a date and time nor an epoch number, such as {@code infinity} */
+    MALFORMED("Not a temporal value: "),
+    /** Date or time fields out of range, such as {@code 0000-00-00} */
+    INVALID_FIELDS("Invalid temporal value: "),
+    /** A {@code d-MMM-yyyy} date whose month is not an English abbreviation */
+    UNKNOWN_MONTH("Unknown month abbreviation in temporal value: "),
+    /** An offset beyond 18 hours, or with minutes or seconds beyond 59 */
+    INVALID_OFFSET("Invalid offset in temporal value: ");
+
+    private static final ParseStatus[] VALUES = values();
+
+    private final String message;
+
+    ParseStatus(String message) {
+        this.message = message;
+    }
+
+    /**
+     * @return whether the value could not be converted, as opposed to being read or having nothing to read
+     */
+    boolean failed() {
+        return this != OK && this != EMPTY;
+    }
+
+    /**
+     * @return the exception the throwing parsing paths report this status with
+     */
+    DateTimeException exception(Object value) {
+        return new DateTimeException(this.message + value);
+    }
+
+    /**
+     * The status encoded in a negative scanner result, see {@link #encode}.
+     */
+    static ParseStatus decode(int result) {
+        return result < 0 ? VALUES[~result] : OK;
+    }
+
+    /**
+     * @return a negative number standing for the status where a scanner otherwise returns a position
+     */
+    int encode() {
+        return ~ordinal();
+    }
+}
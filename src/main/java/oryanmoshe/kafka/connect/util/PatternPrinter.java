@@ -0,0 +1,393 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.WeekFields;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A format pattern compiled into a fixed sequence of field writers.
+ * <p>
+ * Every value is rendered with integer arithmetic into a per thread buffer, so the only allocation is the resulting
+ * String. When the pattern is a date portion followed by a time of day portion, the rendered date portion is cached
+ * per epoch day and only the time of day is written per value.
+ */
+final class PatternPrinter {
+
+    private static final int LITERAL = 0;
+    private static final int YEAR_OF_ERA = 1;
+    private static final int YEAR_OF_ERA_REDUCED = 2;
+    private static final int WEEK_BASED_YEAR = 3;
+    private static final int WEEK_BASED_YEAR_REDUCED = 4;
+    private static final int MONTH = 5;
+    private static final int MONTH_TEXT = 6;
+    private static final int DAY_OF_MONTH = 7;
+    private static final int DAY_OF_YEAR = 8;
+    private static final int DAY_OF_WEEK = 9;
+    private static final int DAY_OF_WEEK_TEXT = 10;
+    // Everything from here on only depends on the time of day
+    private static final int AMPM_TEXT = 11;
+    private static final int HOUR_OF_DAY = 12;
+    private static final int CLOCK_HOUR_OF_DAY = 13;
+    private static final int HOUR_OF_AMPM = 14;
+    private static final int CLOCK_HOUR_OF_AMPM = 15;
+    private static final int MINUTE = 16;
+    private static final int SECOND = 17;
+    private static final int MILLI = 18;
+    private static final int FRACTION = 19;
+    private static final int OFFSET = 20;
+
+    private static final long DAYS_PER_CYCLE = 146097L;
+    private static final long DAYS_0000_TO_1970 = 719528L;
+
+    private final int[] kinds;
+    private final int[] widths;
+    // Literal text, or the names indexed by month, day of week or AM/PM for the text fields
+    private final String[][] texts;
+    private final boolean hasDateFields;
+    private final int firstDayOfWeek, minimalDaysInFirstWeek;
+
+    // Index of the first time of day field, set when everything before it only depends on the day
+    private final int daySplit;
+    private final EpochDayCache dayCache;
+
+    private final ThreadLocal<char[]> buffers;
+
+    private PatternPrinter(int[] kinds, int[] widths, String[][] texts, WeekFields weekFields, int dayCacheSize) {
+        this.kinds = kinds;
+        this.widths = widths;
+        this.texts = texts;
+        this.firstDayOfWeek = weekFields.getFirstDayOfWeek().getValue();
+        this.minimalDaysInFirstWeek = weekFields.getMinimalDaysInFirstWeek();
+
+        int split = kinds.length;
+        boolean hasDateFields = false;
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] >= AMPM_TEXT && split == kinds.length)
+                split = i;
+            if (kinds[i] != LITERAL && kinds[i] < AMPM_TEXT) {
+                hasDateFields = true;
+                if (split < i)
+                    split = -1;
+            }
+        }
+        this.hasDateFields = hasDateFields;
+        this.daySplit = split;
+        this.dayCache = dayCacheSize > 0 && split >= 0 && hasDateFields ? new EpochDayCache(dayCacheSize) : null;
+
+        int maxLength = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            int fieldLength = Math.max(widths[i], 11);
+            if (texts[i] != null)
+                for (String text : texts[i])
+                    fieldLength = Math.max(fieldLength, text.length());
+            maxLength += fieldLength;
+        }
+        final int bufferLength = maxLength;
+        this.buffers = ThreadLocal.withInitial(() -> new char[bufferLength]);
+    }
+
+    /**
+     * @return the compiled printer, or {@code null} if the pattern has fields only the general formatter supports
+     */
+    static PatternPrinter compile(List<TemporalFormatter.Token> tokens, Locale locale, int dayCacheSize,
+            String pattern, ZoneId zone) {
+        int[] kinds = new int[tokens.size()];
+        int[] widths = new int[tokens.size()];
+        String[][] texts = new String[tokens.size()][];
+        for (int i = 0; i < tokens.size(); i++) {
+            TemporalFormatter.Token token = tokens.get(i);
+            widths[i] = token.count;
+            switch (token.letter) {
+                case 0:
+                    kinds[i] = LITERAL;
+                    texts[i] = new String[] { token.literal };
+                    break;
+                case 'y':
+                    kinds[i] = token.count == 2 ? YEAR_OF_ERA_REDUCED : YEAR_OF_ERA;
+                    break;
+                case 'Y':
+                    kinds[i] = token.count == 2 ? WEEK_BASED_YEAR_REDUCED : WEEK_BASED_YEAR;
+                    break;
+                case 'M':
+                case 'L':
+                    if (token.count <= 2) {
+                        kinds[i] = MONTH;
+                    } else {
+                        kinds[i] = MONTH_TEXT;
+                        texts[i] = new String[12];
+                        for (int month = 1; month <= 12; month++)
+                            texts[i][month - 1] = render(token, locale, pattern, LocalDate.of(2000, month, 1), 0,
+                                    ZoneOffset.UTC);
+                    }
+                    break;
+                case 'd':
+                    kinds[i] = DAY_OF_MONTH;
+                    break;
+                case 'D':
+                    kinds[i] = DAY_OF_YEAR;
+                    break;
+                case 'u':
+                    kinds[i] = DAY_OF_WEEK;
+                    break;
+                case 'E':
+                    kinds[i] = DAY_OF_WEEK_TEXT;
+                    texts[i] = new String[7];
+                    for (DayOfWeek dayOfWeek : DayOfWeek.values())
+                        texts[i][dayOfWeek.ordinal()] = render(token, locale, pattern,
+                                LocalDate.of(2000, 1, 3).plusDays(dayOfWeek.ordinal()), 0, ZoneOffset.UTC);
+                    break;
+                case 'a':
+                    kinds[i] = AMPM_TEXT;
+                    texts[i] = new String[] {
+                            render(token, locale, pattern, LocalDate.of(2000, 1, 1), 0, ZoneOffset.UTC),
+                            render(token, locale, pattern, LocalDate.of(2000, 1, 1), 12, ZoneOffset.UTC) };
+                    break;
+                case 'H':
+                    kinds[i] = HOUR_OF_DAY;
+                    break;
+                case 'k':
+                    kinds[i] = CLOCK_HOUR_OF_DAY;
+                    break;
+                case 'K':
+                    kinds[i] = HOUR_OF_AMPM;
+                    break;
+                case 'h':
+                    kinds[i] = CLOCK_HOUR_OF_AMPM;
+                    break;
+                case 'm':
+                    kinds[i] = MINUTE;
+                    break;
+                case 's':
+                    kinds[i] = SECOND;
+                    break;
+                case 'S':
+                    kinds[i] = MILLI;
+                    break;
+                case 'f':
+                    kinds[i] = FRACTION;
+                    break;
+                case 'z':
+                    // Zone names only stay the same in fixed offset zones
+                    if (!zone.getRules().isFixedOffset())
+                        return null;
+                    kinds[i] = LITERAL;
+                    texts[i] = new String[] { render(token, locale, pattern, LocalDate.of(2000, 1, 1), 0, zone) };
+                    break;
+                case 'Z':
+                    kinds[i] = OFFSET;
+                    widths[i] = 0;
+                    break;
+                case 'X':
+                    kinds[i] = OFFSET;
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return new PatternPrinter(kinds, widths, texts, WeekFields.of(locale), dayCacheSize);
+    }
+
+    private static String render(TemporalFormatter.Token token, Locale locale, String pattern, LocalDate date,
+            int hour, ZoneId zone) {
+        Instant instant = date.atTime(LocalTime.of(hour, 0)).toInstant(ZoneOffset.UTC);
+        return TemporalFormatter.toFormatter(List.of(token), locale, pattern, zone).format(instant);
+    }
+
+    CacheStatistics cacheStatistics() {
+        return this.dayCache == null ? CacheStatistics.DISABLED : this.dayCache.statistics();
+    }
+
+    /**
+     * @param localSecond   the wall clock to print, in seconds since 1970-01-01T00:00
+     * @param offsetSeconds the zone offset of the wall clock, for the offset fields
+     */
+    String print(long localSecond, int nano, int offsetSeconds) {
+        char[] buffer = this.buffers.get();
+        long epochDay = Math.floorDiv(localSecond, EpochTime.SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(localSecond, EpochTime.SECONDS_PER_DAY);
+
+        if (this.dayCache == null)
+            return new String(buffer, 0, write(buffer, 0, 0, this.kinds.length, epochDay, secondOfDay, nano,
+                    offsetSeconds));
+
+        String day = this.dayCache.get(epochDay);
+        if (day == null) {
+            day = new String(buffer, 0, write(buffer, 0, 0, this.daySplit, epochDay, 0, 0, 0));
+            this.dayCache.put(epochDay, day);
+        }
+        if (this.daySplit == this.kinds.length)
+            return day;
+
+        day.getChars(0, day.length(), buffer, 0);
+        return new String(buffer, 0, write(buffer, day.length(), this.daySplit, this.kinds.length, epochDay,
+                secondOfDay, nano, offsetSeconds));
+    }
+
+    private int write(char[] buffer, int pos, int from, int to, long epochDay, int secondOfDay, int nano,
+            int offsetSeconds) {
+        int year = 0, month = 0, day = 0, dayOfYear = 0, dayOfWeek = 0;
+        if (from == 0 && this.hasDateFields) {
+            // Civil date of the epoch day, the same arithmetic as LocalDate.ofEpochDay
+            long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+            long adjust = 0;
+            if (zeroDay < 0) {
+                long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+                adjust = adjustCycles * 400;
+                zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+            }
+            long yearEstimate = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+            long dayOfYearEstimate = zeroDay
+                    - (365 * yearEstimate + yearEstimate / 4 - yearEstimate / 100 + yearEstimate / 400);
+            if (dayOfYearEstimate < 0) {
+                yearEstimate--;
+                dayOfYearEstimate = zeroDay
+                        - (365 * yearEstimate + yearEstimate / 4 - yearEstimate / 100 + yearEstimate / 400);
+            }
+            int marchDayOfYear = (int) dayOfYearEstimate;
+            int marchMonth = (marchDayOfYear * 5 + 2) / 153;
+            month = (marchMonth + 2) % 12 + 1;
+            day = marchDayOfYear - (marchMonth * 306 + 5) / 10 + 1;
+            year = (int) (yearEstimate + adjust + marchMonth / 10);
+            dayOfYear = (int) (epochDay - TemporalParser.epochDay(year, 1, 1)) + 1;
+            dayOfWeek = (int) Math.floorMod(epochDay + 3, 7L) + 1;
+        }
+
+        int hour = secondOfDay / 3600;
+        for (int i = from; i < to; i++) {
+            int width = this.widths[i];
+            switch (this.kinds[i]) {
+                case LITERAL:
+                    pos = writeText(buffer, pos, this.texts[i][0]);
+                    break;
+                case YEAR_OF_ERA:
+                    pos = writeNumber(buffer, pos, year >= 1 ? year : 1 - year, width);
+                    break;
+                case YEAR_OF_ERA_REDUCED:
+                    pos = writeNumber(buffer, pos, (year >= 1 ? year : 1 - year) % 100, 2);
+                    break;
+                case WEEK_BASED_YEAR:
+                    pos = writeNumber(buffer, pos, weekBasedYear(year, dayOfYear, dayOfWeek), width);
+                    break;
+                case WEEK_BASED_YEAR_REDUCED:
+                    pos = writeNumber(buffer, pos, Math.abs(weekBasedYear(year, dayOfYear, dayOfWeek) % 100), 2);
+                    break;
+                case MONTH:
+                    pos = writeNumber(buffer, pos, month, width);
+                    break;
+                case MONTH_TEXT:
+                    pos = writeText(buffer, pos, this.texts[i][month - 1]);
+                    break;
+                case DAY_OF_MONTH:
+                    pos = writeNumber(buffer, pos, day, width);
+                    break;
+                case DAY_OF_YEAR:
+                    pos = writeNumber(buffer, pos, dayOfYear, width);
+                    break;
+                case DAY_OF_WEEK:
+                    pos = writeNumber(buffer, pos, dayOfWeek, width);
+                    break;
+                case DAY_OF_WEEK_TEXT:
+                    pos = writeText(buffer, pos, this.texts[i][dayOfWeek - 1]);
+                    break;
+                case AMPM_TEXT:
+                    pos = writeText(buffer, pos, this.texts[i][hour < 12 ? 0 : 1]);
+                    break;
+                case HOUR_OF_DAY:
+                    pos = writeNumber(buffer, pos, hour, width);
+                    break;
+                case CLOCK_HOUR_OF_DAY:
+                    pos = writeNumber(buffer, pos, hour == 0 ? 24 : hour, width);
+                    break;
+                case HOUR_OF_AMPM:
+                    pos = writeNumber(buffer, pos, hour % 12, width);
+                    break;
+                case CLOCK_HOUR_OF_AMPM:
+                    pos = writeNumber(buffer, pos, hour % 12 == 0 ? 12 : hour % 12, width);
+                    break;
+                case MINUTE:
+                    pos = writeNumber(buffer, pos, secondOfDay / 60 % 60, width);
+                    break;
+                case SECOND:
+                    pos = writeNumber(buffer, pos, secondOfDay % 60, width);
+                    break;
+                case MILLI:
+                    pos = writeNumber(buffer, pos, nano / 1_000_000, width);
+                    break;
+                case OFFSET:
+                    pos = writeOffset(buffer, pos, offsetSeconds, width);
+                    break;
+                default:
+                    pos = writeNumber(buffer, pos, (int) (nano / EpochTime.POWERS_OF_TEN[9 - width]), width);
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * The localized week based year, the same arithmetic as {@link WeekFields#weekBasedYear()}.
+     */
+    private int weekBasedYear(int year, int dayOfYear, int isoDayOfWeek) {
+        int dayOfWeek = Math.floorMod(isoDayOfWeek - this.firstDayOfWeek, 7) + 1;
+        int offset = startOfWeekOffset(dayOfYear, dayOfWeek);
+        int week = (7 + offset + (dayOfYear - 1)) / 7;
+        if (week == 0)
+            return year - 1;
+
+        int lengthOfYear = TemporalParser.isLeapYear(year) ? 366 : 365;
+        int newYearWeek = (7 + offset + (lengthOfYear + this.minimalDaysInFirstWeek - 1)) / 7;
+        return week >= newYearWeek ? year + 1 : year;
+    }
+
+    private int startOfWeekOffset(int day, int dayOfWeek) {
+        int weekStart = Math.floorMod(day - dayOfWeek, 7);
+        return weekStart + 1 > this.minimalDaysInFirstWeek ? 7 - weekStart : -weekStart;
+    }
+
+    /**
+     * @param style 0 for {@code Z} (+HHMM), otherwise the {@code X} count: 1 (+HH), 2 (+HHMM) or 3 (+HH:MM), which
+     *              print {@code Z} for a zero offset
+     */
+    private static int writeOffset(char[] buffer, int pos, int offsetSeconds, int style) {
+        if (offsetSeconds == 0 && style > 0) {
+            buffer[pos] = 'Z';
+            return pos + 1;
+        }
+        int absolute = Math.abs(offsetSeconds);
+        buffer[pos++] = offsetSeconds < 0 ? '-' : '+';
+        pos = writeNumber(buffer, pos, absolute / 3600, 2);
+        if (style == 1)
+            return pos;
+        if (style == 3)
+            buffer[pos++] = ':';
+        return writeNumber(buffer, pos, absolute / 60 % 60, 2);
+    }
+
+    private static int writeText(char[] buffer, int pos, String text) {
+        text.getChars(0, text.length(), buffer, pos);
+        return pos + text.length();
+    }
+
+    private static int writeNumber(char[] buffer, int pos, int value, int width) {
+        if (value < 0) {
+            buffer[pos++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (int remaining = value / 10; remaining > 0; remaining /= 10)
+            digits++;
+        for (int i = digits; i < width; i++)
+            buffer[pos++] = '0';
+        int end = pos + digits;
+        for (int i = end - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+}
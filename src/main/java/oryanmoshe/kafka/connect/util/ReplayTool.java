@@ -0,0 +1,418 @@
+package oryanmoshe.kafka.connect.util;
+
+import io.debezium.spi.converter.CustomConverter.Converter;
+import io.debezium.spi.converter.CustomConverter.ConverterRegistration;
+import io.debezium.spi.converter.RelationalColumn;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.apache.kafka.connect.data.SchemaBuilder;
+
+/**
+ * Replays a capture of raw column values through the converter, to check a new version or configuration against
+ * real value distributions before rolling it out. The entry point of the shaded jar:
+ *
+ * <pre>
+ * java -jar TimestampConverter.jar [--config converter.properties] [--diff other.properties]
+ *     [--format csv|ndjson] [--top 5] [--examples 10] capture.csv
+ * </pre>
+ *
+ * Every type name of the capture is registered through {@link TimestampConverter#converterFor} like a Debezium
+ * column, and its values are converted in batches whose conversion alone is timed, so reading the capture does not
+ * count towards the throughput or the allocation rate. The report has, per type name, how many values were
+ * converted, {@code null}, unchanged or failed, why they failed, the most frequent outputs and, with {@code --diff},
+ * the values a second configuration converts differently.
+ * <p>
+ * The configuration files are converter properties, with or without the connector's {@code timestampConverter.}
+ * prefix.
+ */
+public final class ReplayTool {
+
+    static final int BATCH_SIZE = 4096;
+    // Distinct outputs counted per type, further outputs only count towards the totals
+    private static final int MAX_TRACKED_OUTPUTS = 10_000;
+    private static final String CONFIG_PREFIX = "timestampConverter.";
+    private static final String DATA_COLLECTION = "replay";
+
+    private static final String USAGE = "Usage: java -jar TimestampConverter.jar [--config converter.properties] "
+            + "[--diff other.properties] [--format csv|ndjson] [--top 5] [--examples 10] <capture file>";
+
+    /**
+     * The replay of one type name.
+     */
+    static final class TypeReport {
+        final String typeName;
+        // null if the type is not supported
+        final Converter converter, diffConverter;
+        long values, converted, nulls, unchanged, failed, differences;
+        final Map<String, long[]> outputs = new HashMap<>();
+
+        TypeReport(String typeName, Converter converter, Converter diffConverter) {
+            this.typeName = typeName;
+            this.converter = converter;
+            this.diffConverter = diffConverter;
+        }
+    }
+
+    private final TimestampConverter tsConverter;
+    // null without --diff
+    private final TimestampConverter diffConverter;
+    private final int maxExamples;
+    private final Map<String, TypeReport> typeReports = new TreeMap<>();
+    private final List<String> diffExamples = new ArrayList<>();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private long convertedValues, convertNanos, allocatedBytes, unreadableLines;
+    private boolean allocationMeasured = true;
+
+    /**
+     * @param diffConfig  the configuration to compare the outputs against, or {@code null}
+     * @param maxExamples how many differing values to keep for the report
+     * @throws IllegalArgumentException if a configuration is invalid
+     */
+    ReplayTool(Properties config, Properties diffConfig, int maxExamples) {
+        this.tsConverter = new TimestampConverter();
+        this.tsConverter.configure(config);
+        if (diffConfig != null) {
+            this.diffConverter = new TimestampConverter();
+            this.diffConverter.configure(diffConfig);
+        } else {
+            this.diffConverter = null;
+        }
+        this.maxExamples = maxExamples;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path config = null, diff = null, capture = null;
+        String format = null;
+        int top = 5, examples = 10;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--config":
+                        config = Paths.get(args[++i]);
+                        break;
+                    case "--diff":
+                        diff = Paths.get(args[++i]);
+                        break;
+                    case "--format":
+                        format = args[++i];
+                        break;
+                    case "--top":
+                        top = Integer.parseInt(args[++i]);
+                        break;
+                    case "--examples":
+                        examples = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        if (args[i].startsWith("--") || capture != null)
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        capture = Paths.get(args[i]);
+                }
+            }
+            if (capture == null)
+                throw new IllegalArgumentException("No capture file");
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "Missing option value" : e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        ReplayTool tool = new ReplayTool(load(config), diff == null ? null : load(diff), examples);
+        CaptureReader.Format captureFormat = format == null ? CaptureReader.Format.ofFile(capture)
+                : CaptureReader.Format.of(format);
+        try (CaptureReader reader = new CaptureReader(Files.newBufferedReader(capture, StandardCharsets.UTF_8),
+                captureFormat)) {
+            tool.replay(reader);
+        }
+        tool.report(System.out, top);
+    }
+
+    /**
+     * @return the converter properties of a file, without their {@code timestampConverter.} prefix, or none if
+     *         {@code file} is {@code null}
+     */
+    static Properties load(Path file) throws IOException {
+        Properties props = new Properties();
+        if (file == null)
+            return props;
+        Properties loaded = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            loaded.load(reader);
+        }
+        for (String key : loaded.stringPropertyNames()) {
+            String name = key.startsWith(CONFIG_PREFIX) ? key.substring(CONFIG_PREFIX.length()) : key;
+            props.setProperty(name, loaded.getProperty(key));
+        }
+        return props;
+    }
+
+    /**
+     * Converts every pair of the capture.
+     */
+    void replay(CaptureReader reader) throws IOException {
+        TypeReport[] reports = new TypeReport[BATCH_SIZE];
+        Object[] rawValues = new Object[BATCH_SIZE];
+        Object[] results = new Object[BATCH_SIZE];
+        int count = 0;
+        while (reader.next()) {
+            reports[count] = typeReport(reader.typeName);
+            rawValues[count] = reader.rawValue;
+            if (++count == BATCH_SIZE) {
+                replay(reports, rawValues, results, count);
+                count = 0;
+            }
+        }
+        replay(reports, rawValues, results, count);
+        this.unreadableLines += reader.unreadableLines();
+    }
+
+    private void replay(TypeReport[] reports, Object[] rawValues, Object[] results, int count) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Converter converter = reports[i].converter;
+            if (converter != null)
+                results[i] = convert(converter, rawValues[i]);
+        }
+        this.convertNanos += System.nanoTime() - start;
+        this.allocatedBytes += allocatedBytes() - allocatedBefore;
+
+        for (int i = 0; i < count; i++) {
+            TypeReport report = reports[i];
+            report.values++;
+            if (report.converter == null)
+                continue;
+            this.convertedValues++;
+            record(report, rawValues[i], results[i]);
+            if (report.diffConverter != null)
+                diff(report, rawValues[i], results[i]);
+        }
+    }
+
+    /**
+     * @return the converted value, or the exception converting it threw
+     */
+    private static Object convert(Converter converter, Object rawValue) {
+        try {
+            return converter.convert(rawValue);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private void record(TypeReport report, Object rawValue, Object result) {
+        if (result instanceof RuntimeException)
+            report.failed++;
+        else if (result == null)
+            report.nulls++;
+        else if (rawValue != null && result.equals(rawValue.toString()))
+            report.unchanged++;
+        else
+            report.converted++;
+
+        String output = describe(result);
+        long[] occurrences = report.outputs.get(output);
+        if (occurrences != null)
+            occurrences[0]++;
+        else if (report.outputs.size() < MAX_TRACKED_OUTPUTS)
+            report.outputs.put(output, new long[] { 1 });
+    }
+
+    private void diff(TypeReport report, Object rawValue, Object result) {
+        Object other = convert(report.diffConverter, rawValue);
+        boolean same = result instanceof RuntimeException ? other != null && other.getClass() == result.getClass()
+                : Objects.equals(result, other);
+        if (same)
+            return;
+        report.differences++;
+        if (this.diffExamples.size() < this.maxExamples)
+            this.diffExamples.add(String.format("%s %s: %s -> %s", report.typeName, quote(rawValue), describe(result),
+                    describe(other)));
+    }
+
+    private TypeReport typeReport(String typeName) {
+        TypeReport report = this.typeReports.get(typeName);
+        if (report == null) {
+            report = new TypeReport(typeName, register(this.tsConverter, typeName),
+                    this.diffConverter == null ? null : register(this.diffConverter, typeName));
+            this.typeReports.put(typeName, report);
+        }
+        return report;
+    }
+
+    /**
+     * @return the converter Debezium would be handed for a column of the type, {@code null} if it is not supported
+     */
+    private static Converter register(TimestampConverter tsConverter, String typeName) {
+        Converter[] registered = new Converter[1];
+        ConverterRegistration<SchemaBuilder> registration = (schema, converter) -> registered[0] = converter;
+        tsConverter.converterFor(new ReplayColumn(typeName), registration);
+        return registered[0];
+    }
+
+    private long allocatedBytes() {
+        if (this.allocationMeasured && this.threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) this.threads;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled())
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        this.allocationMeasured = false;
+        return 0;
+    }
+
+    /**
+     * Prints the report of everything replayed so far.
+     *
+     * @param top how many of the most frequent outputs to list per type
+     */
+    void report(PrintStream out, int top) {
+        long values = this.typeReports.values().stream().mapToLong(report -> report.values).sum();
+        out.printf("Replayed %,d values of %d types (%,d unreadable lines skipped)%n", values, this.typeReports.size(),
+                this.unreadableLines);
+        double seconds = this.convertNanos / 1e9;
+        if (this.convertedValues > 0 && seconds > 0) {
+            out.printf("Converted %,d values in %.3f s: %,.0f values/s", this.convertedValues, seconds,
+                    this.convertedValues / seconds);
+            if (this.allocationMeasured)
+                out.printf(", allocating %.1f bytes/value (%.1f MB/s)", (double) this.allocatedBytes
+                        / this.convertedValues, this.allocatedBytes / seconds / (1024 * 1024));
+            out.printf("%n");
+        }
+
+        out.printf("%n%-28s %14s %14s %14s %14s %14s%n", "type", "values", "converted", "null", "unchanged", "failed");
+        for (TypeReport report : this.typeReports.values()) {
+            if (report.converter == null)
+                out.printf("%-28s %,14d (unsupported type)%n", report.typeName, report.values);
+            else
+                out.printf("%-28s %,14d %,14d %,14d %,14d %,14d%n", report.typeName, report.values, report.converted,
+                        report.nulls, report.unchanged, report.failed);
+        }
+
+        Map<String, Map<String, Long>> parseFailures = this.tsConverter.parseFailures();
+        Map<String, String> detectedShapes = this.tsConverter.detectedShapes();
+        for (TypeReport report : this.typeReports.values()) {
+            if (report.converter == null)
+                continue;
+            String columnPath = DATA_COLLECTION + "." + report.typeName;
+            out.printf("%n%s: detected shape %s, parse failures %s%n", report.typeName,
+                    detectedShapes.getOrDefault(columnPath, "none"),
+                    parseFailures.getOrDefault(columnPath, Map.of()));
+            report.outputs.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                    .limit(top)
+                    .forEach(output -> out.printf("  %,14d  %s%n", output.getValue()[0], output.getKey()));
+        }
+
+        if (this.diffConverter != null) {
+            out.printf("%nDiff against the second configuration: %,d of %,d values differ%n", differences(),
+                    this.convertedValues);
+            this.diffExamples.forEach(example -> out.printf("  %s%n", example));
+        }
+    }
+
+    /**
+     * @return the replay of a type name, {@code null} if the capture did not have it
+     */
+    TypeReport report(String typeName) {
+        return this.typeReports.get(typeName);
+    }
+
+    long differences() {
+        return this.typeReports.values().stream().mapToLong(report -> report.differences).sum();
+    }
+
+    private static String describe(Object result) {
+        if (result instanceof RuntimeException)
+            return "failed with " + result.getClass().getSimpleName();
+        return result == null ? "null" : quote(result);
+    }
+
+    private static String quote(Object value) {
+        return value instanceof String ? "\"" + value + "\"" : String.valueOf(value);
+    }
+
+    /**
+     * An optional column of the replayed type, without a default value.
+     */
+    private static final class ReplayColumn implements RelationalColumn {
+        private final String typeName;
+
+        ReplayColumn(String typeName) {
+            this.typeName = typeName;
+        }
+
+        @Override
+        public String typeName() {
+            return this.typeName;
+        }
+
+        @Override
+        public String name() {
+            return this.typeName;
+        }
+
+        @Override
+        public String dataCollection() {
+            return DATA_COLLECTION;
+        }
+
+        @Override
+        public String typeExpression() {
+            return this.typeName;
+        }
+
+        @Override
+        public OptionalInt scale() {
+            return OptionalInt.empty();
+        }
+
+        @Override
+        public int nativeType() {
+            return 0;
+        }
+
+        @Override
+        public OptionalInt length() {
+            return OptionalInt.empty();
+        }
+
+        @Override
+        public int jdbcType() {
+            return Types.OTHER;
+        }
+
+        @Override
+        public boolean isOptional() {
+            return true;
+        }
+
+        @Override
+        public boolean hasDefaultValue() {
+            return false;
+        }
+
+        @Override
+        public Object defaultValue() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Match patterns of the {@code rules.<n>.match} overrides, compiled into a trie over the dot separated segments of a
+ * column path such as {@code inventory.orders.created_at}.
+ * <p>
+ * Segments are matched case insensitively, and may use {@code *} (any run of characters) and {@code ?} (any single
+ * character) wildcards that never cross a dot. Literal segments are hash lookups and each level only tries its few
+ * wildcard segments, so resolving a column costs the same with ten or ten thousand rules.
+ *
+ * @param <T> the value a rule resolves to
+ */
+final class RuleIndex<T> {
+
+    private static final class Node<T> {
+        final Map<String, Node<T>> literals = new HashMap<>();
+        final List<String> wildcards = new ArrayList<>();
+        final List<Node<T>> wildcardNodes = new ArrayList<>();
+        // The matching rule with the lowest priority ending at this node
+        int priority = Integer.MAX_VALUE;
+        T value;
+
+        Node<T> child(String segment) {
+            if (segment.indexOf('*') < 0 && segment.indexOf('?') < 0)
+                return this.literals.computeIfAbsent(segment, s -> new Node<>());
+
+            int index = this.wildcards.indexOf(segment);
+            if (index >= 0)
+                return this.wildcardNodes.get(index);
+            Node<T> node = new Node<>();
+            this.wildcards.add(segment);
+            this.wildcardNodes.add(node);
+            return node;
+        }
+    }
+
+    private final Node<T> root = new Node<>();
+    private int size;
+
+    /**
+     * @param priority rules with a lower priority win when several match a path
+     */
+    void add(String pattern, int priority, T value) {
+        Node<T> node = this.root;
+        for (String segment : segments(pattern))
+            node = node.child(segment);
+        if (priority < node.priority) {
+            node.priority = priority;
+            node.value = value;
+        }
+        this.size++;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the value of the matching rule with the lowest priority, or {@code null} if none matches
+     */
+    T lookup(String path) {
+        if (this.size == 0)
+            return null;
+
+        Node<T> match = find(this.root, segments(path), 0, null);
+        return match == null ? null : match.value;
+    }
+
+    private static <T> Node<T> find(Node<T> node, String[] segments, int depth, Node<T> best) {
+        if (depth == segments.length)
+            return node.value != null && (best == null || node.priority < best.priority) ? node : best;
+
+        String segment = segments[depth];
+        Node<T> literal = node.literals.get(segment);
+        if (literal != null)
+            best = find(literal, segments, depth + 1, best);
+        for (int i = 0; i < node.wildcards.size(); i++) {
+            if (matches(node.wildcards.get(i), segment))
+                best = find(node.wildcardNodes.get(i), segments, depth + 1, best);
+        }
+        return best;
+    }
+
+    private static String[] segments(String path) {
+        return path.toLowerCase(Locale.ROOT).split("\\.", -1);
+    }
+
+    /**
+     * Wildcard match of a whole segment, backtracking to the last {@code *} on a mismatch.
+     */
+    static boolean matches(String wildcard, String segment) {
+        int w = 0, s = 0, star = -1, starMatch = 0;
+        while (s < segment.length()) {
+            if (w < wildcard.length() && (wildcard.charAt(w) == '?' || wildcard.charAt(w) == segment.charAt(s))) {
+                w++;
+                s++;
+            } else if (w < wildcard.length() && wildcard.charAt(w) == '*') {
+                star = w++;
+                starMatch = s;
+            } else if (star >= 0) {
+                w = star + 1;
+                s = ++starMatch;
+            } else {
+                return false;
+            }
+        }
+        while (w < wildcard.length() && wildcard.charAt(w) == '*')
+            w++;
+        return w == wildcard.length();
+    }
+}
@@ -0,0 +1,290 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.SignStyle;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalField;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable, thread safe formatter for epoch based values.
+ * <p>
+ * Patterns use the {@link java.text.SimpleDateFormat} syntax the converter has always been configured with, and are
+ * translated once into an equivalent {@link DateTimeFormatter} so a single instance can be shared by every column and
+ * every snapshot thread. On top of that syntax, {@code f} repeated 1 to 9 times prints that many fractional digits of
+ * the second, e.g. {@code ffffff} for microseconds, where {@code S} only ever prints milliseconds.
+ * <p>
+ * Whenever the pattern only uses the fields {@link PatternPrinter} supports, values are rendered by the compiled
+ * printer, the {@link DateTimeFormatter} is the general fallback for everything else.
+ */
+final class TemporalFormatter {
+
+    static final ZoneId UTC = ZoneId.of("UTC");
+
+    /**
+     * A pattern letter with its repeat count, or a literal when {@code letter} is 0.
+     */
+    static final class Token {
+        final char letter;
+        final int count;
+        final String literal;
+
+        Token(char letter, int count, String literal) {
+            this.letter = letter;
+            this.count = count;
+            this.literal = literal;
+        }
+    }
+
+    private final String pattern;
+    private final ZoneId zone;
+    private final DateTimeFormatter formatter;
+    private final PatternPrinter printer;
+    // null unless the pattern only has elapsed time fields
+    private final TimePrinter timePrinter;
+    // null when the zone is always UTC
+    private final ZoneOffsetCache offsets;
+
+    private TemporalFormatter(String pattern, ZoneId zone, DateTimeFormatter formatter, PatternPrinter printer,
+            TimePrinter timePrinter) {
+        this.pattern = pattern;
+        this.zone = zone;
+        this.formatter = formatter;
+        this.printer = printer;
+        this.timePrinter = timePrinter;
+        this.offsets = ZoneOffsetCache.of(zone);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the pattern is not a valid {@link java.text.SimpleDateFormat} pattern
+     */
+    static TemporalFormatter ofPattern(String pattern) {
+        return ofPattern(pattern, 0);
+    }
+
+    /**
+     * @param dayCacheSize how many epoch days of rendered date portions to cache, 0 to disable the cache
+     * @throws IllegalArgumentException if the pattern is not a valid {@link java.text.SimpleDateFormat} pattern
+     */
+    static TemporalFormatter ofPattern(String pattern, int dayCacheSize) {
+        return ofPattern(pattern, dayCacheSize, UTC);
+    }
+
+    /**
+     * @param zone the zone values are rendered in
+     * @throws IllegalArgumentException if the pattern is not a valid {@link java.text.SimpleDateFormat} pattern
+     */
+    static TemporalFormatter ofPattern(String pattern, int dayCacheSize, ZoneId zone) {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        List<Token> tokens = tokenize(pattern);
+        return new TemporalFormatter(pattern, zone, toFormatter(tokens, locale, pattern, zone),
+                PatternPrinter.compile(tokens, locale, dayCacheSize, pattern, zone), TimePrinter.compile(tokens));
+    }
+
+    String pattern() {
+        return this.pattern;
+    }
+
+    ZoneId zone() {
+        return this.zone;
+    }
+
+    /**
+     * @return whether the pattern is rendered by a compiled {@link PatternPrinter} rather than the general formatter
+     */
+    boolean isCompiled() {
+        return this.printer != null;
+    }
+
+    /**
+     * @return the printer of elapsed times, {@code null} if the pattern has other fields than hours, minutes, seconds
+     *         and fractions of the second
+     */
+    TimePrinter timePrinter() {
+        return this.timePrinter;
+    }
+
+    CacheStatistics cacheStatistics() {
+        return this.printer == null ? CacheStatistics.DISABLED : this.printer.cacheStatistics();
+    }
+
+    String format(long epochMillis) {
+        return format(Math.floorDiv(epochMillis, 1000L), (int) Math.floorMod(epochMillis, 1000L) * 1_000_000);
+    }
+
+    /**
+     * @param nano the nanosecond of the second, from 0 to 999,999,999
+     */
+    String format(long epochSecond, int nano) {
+        if (this.printer != null) {
+            if (this.offsets == null)
+                return this.printer.print(epochSecond, nano, 0);
+            int offsetSeconds = this.offsets.offsetAt(epochSecond);
+            return this.printer.print(epochSecond + offsetSeconds, nano, offsetSeconds);
+        }
+
+        return this.formatter.format(Instant.ofEpochSecond(epochSecond, nano));
+    }
+
+    private static List<Token> tokenize(String pattern) {
+        List<Token> tokens = new ArrayList<>();
+        int length = pattern.length();
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+                    tokens.add(new Token((char) 0, 0, "'"));
+                    i += 2;
+                    continue;
+                }
+                int end = i + 1;
+                StringBuilder literal = new StringBuilder();
+                while (end < length) {
+                    if (pattern.charAt(end) == '\'') {
+                        if (end + 1 < length && pattern.charAt(end + 1) == '\'') {
+                            literal.append('\'');
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    literal.append(pattern.charAt(end++));
+                }
+                if (end >= length)
+                    throw new IllegalArgumentException("Unterminated quote in pattern: " + pattern);
+                tokens.add(new Token((char) 0, 0, literal.toString()));
+                i = end + 1;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int count = 1;
+                while (i + count < length && pattern.charAt(i + count) == c)
+                    count++;
+                tokens.add(new Token(c, count, null));
+                i += count;
+            } else {
+                tokens.add(new Token((char) 0, 0, String.valueOf(c)));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    static DateTimeFormatter toFormatter(List<Token> tokens, Locale locale, String pattern, ZoneId zone) {
+        DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder();
+        WeekFields weekFields = WeekFields.of(locale);
+        for (Token token : tokens) {
+            if (token.letter == 0)
+                builder.appendLiteral(token.literal);
+            else
+                appendField(builder, token.letter, token.count, weekFields, pattern);
+        }
+        return builder.toFormatter(locale).withZone(zone);
+    }
+
+    private static void appendField(DateTimeFormatterBuilder builder, char letter, int count, WeekFields weekFields,
+            String pattern) {
+        switch (letter) {
+            case 'G':
+                builder.appendText(ChronoField.ERA, TextStyle.SHORT);
+                break;
+            case 'y':
+                appendYear(builder, ChronoField.YEAR_OF_ERA, count);
+                break;
+            case 'Y':
+                appendYear(builder, weekFields.weekBasedYear(), count);
+                break;
+            case 'M':
+            case 'L':
+                if (count <= 2)
+                    appendNumber(builder, ChronoField.MONTH_OF_YEAR, count);
+                else if (letter == 'M')
+                    builder.appendText(ChronoField.MONTH_OF_YEAR, count == 3 ? TextStyle.SHORT : TextStyle.FULL);
+                else
+                    builder.appendText(ChronoField.MONTH_OF_YEAR,
+                            count == 3 ? TextStyle.SHORT_STANDALONE : TextStyle.FULL_STANDALONE);
+                break;
+            case 'w':
+                appendNumber(builder, weekFields.weekOfWeekBasedYear(), count);
+                break;
+            case 'W':
+                appendNumber(builder, weekFields.weekOfMonth(), count);
+                break;
+            case 'D':
+                appendNumber(builder, ChronoField.DAY_OF_YEAR, count);
+                break;
+            case 'd':
+                appendNumber(builder, ChronoField.DAY_OF_MONTH, count);
+                break;
+            case 'F':
+                appendNumber(builder, ChronoField.ALIGNED_WEEK_OF_MONTH, count);
+                break;
+            case 'E':
+                builder.appendText(ChronoField.DAY_OF_WEEK, count < 4 ? TextStyle.SHORT : TextStyle.FULL);
+                break;
+            case 'u':
+                appendNumber(builder, ChronoField.DAY_OF_WEEK, count);
+                break;
+            case 'a':
+                builder.appendText(ChronoField.AMPM_OF_DAY, TextStyle.SHORT);
+                break;
+            case 'H':
+                appendNumber(builder, ChronoField.HOUR_OF_DAY, count);
+                break;
+            case 'k':
+                appendNumber(builder, ChronoField.CLOCK_HOUR_OF_DAY, count);
+                break;
+            case 'K':
+                appendNumber(builder, ChronoField.HOUR_OF_AMPM, count);
+                break;
+            case 'h':
+                appendNumber(builder, ChronoField.CLOCK_HOUR_OF_AMPM, count);
+                break;
+            case 'm':
+                appendNumber(builder, ChronoField.MINUTE_OF_HOUR, count);
+                break;
+            case 's':
+                appendNumber(builder, ChronoField.SECOND_OF_MINUTE, count);
+                break;
+            case 'S':
+                // SimpleDateFormat prints the milliseconds as a number, not as a fraction of the second
+                appendNumber(builder, ChronoField.MILLI_OF_SECOND, count);
+                break;
+            case 'f':
+                if (count > 9)
+                    throw new IllegalArgumentException("Invalid fraction of second: length=" + count);
+                builder.appendFraction(ChronoField.NANO_OF_SECOND, count, count, false);
+                break;
+            case 'z':
+                builder.appendZoneText(count < 4 ? TextStyle.SHORT : TextStyle.FULL);
+                break;
+            case 'Z':
+                builder.appendOffset("+HHMM", "+0000");
+                break;
+            case 'X':
+                if (count > 3)
+                    throw new IllegalArgumentException("Invalid ISO 8601 format: length=" + count);
+                builder.appendOffset(count == 1 ? "+HH" : count == 2 ? "+HHMM" : "+HH:MM", "Z");
+                break;
+            default:
+                throw new IllegalArgumentException("Illegal pattern character '" + letter + "' in: " + pattern);
+        }
+    }
+
+    private static void appendYear(DateTimeFormatterBuilder builder, TemporalField field, int count) {
+        if (count == 2)
+            builder.appendValueReduced(field, 2, 2, 2000);
+        else
+            appendNumber(builder, field, count);
+    }
+
+    private static void appendNumber(DateTimeFormatterBuilder builder, TemporalField field, int count) {
+        builder.appendValue(field, count, 19, SignStyle.NORMAL);
+    }
+}
@@ -0,0 +1,13 @@
+package oryanmoshe.kafka.connect.util;
+
+/**
+ * What a column's values represent, which decides their formatter and their typed output schema.
+ */
+public enum TemporalKind {
+    /** A calendar date, formatted with {@code format.date} */
+    DATE,
+    /** A time of the day, formatted with {@code format.time} */
+    TIME,
+    /** A date and time, formatted with {@code format.datetime} and subject to the time zones */
+    DATETIME
+}
@@ -0,0 +1,447 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.time.DateTimeException;
+
+/**
+ * Single pass scanner for the textual temporal values handed over by the connectors.
+ * <p>
+ * Accepts the same shapes the converter always did: an optional date ({@code yyyy-M-d}, {@code d/M/yyyy} or
+ * {@code d-MMM-yyyy}), followed by an optional whitespace and/or {@code T}, followed by an optional time
+ * ({@code H:m:s} with up to 9 fractional digits). Values without a date part are anchored on 2020-01-01, anything
+ * after the recognized prefix is ignored. Values with neither, such as {@code -infinity}, are
+ * {@link ParseStatus#MALFORMED}.
+ * <p>
+ * The {@code try} methods report values that cannot be parsed with a {@link ParseStatus} rather than an exception,
+ * the others throw it as a {@link DateTimeException}.
+ */
+final class TemporalParser {
+
+    private static final String[] MONTH_ABBREVIATIONS = { "jan", "feb", "mar", "apr", "may", "jun", "jul", "aug",
+            "sep", "oct", "nov", "dec" };
+
+    private static final int DEFAULT_YEAR = 2020;
+    private static final long DAYS_0000_TO_1970 = 719528L;
+
+    /**
+     * Epoch seconds of the date that time-only values are anchored on.
+     */
+    static final long DEFAULT_DATE_SECONDS = epochDay(DEFAULT_YEAR, 1, 1) * EpochTime.SECONDS_PER_DAY;
+
+    private TemporalParser() {
+    }
+
+    /**
+     * Parses {@code text} into milliseconds since the epoch (UTC), truncating any sub-millisecond digits.
+     *
+     * @throws DateTimeException if the recognized fields do not form a valid date and time
+     */
+    static long parseMillis(CharSequence text) {
+        return parse(text, new EpochTime()).toMillis();
+    }
+
+    /**
+     * Parses {@code text} into a wall clock counted in seconds and nanoseconds since the epoch, keeping every
+     * fractional digit. Any zone or offset suffix is ignored.
+     *
+     * @return {@code into}
+     * @throws DateTimeException if the recognized fields do not form a valid date and time
+     */
+    static EpochTime parse(CharSequence text, EpochTime into) {
+        return check(tryParse(text, into), text, into);
+    }
+
+    /**
+     * Parses {@code text} like {@link #parse}, without throwing.
+     *
+     * @return {@link ParseStatus#OK}, or why the recognized fields do not form a valid date and time, in which case
+     *         {@code into} is left unchanged
+     */
+    static ParseStatus tryParse(CharSequence text, EpochTime into) {
+        return ParseStatus.decode(scan(text, into));
+    }
+
+    /**
+     * Parses {@code text} like {@link #parse}, followed by an optional space and an optional offset ({@code Z},
+     * {@code +HH}, {@code +HH:mm}, {@code +HHmm} or with seconds). A value with an offset is an instant, one without
+     * it stays a wall clock.
+     *
+     * @return {@code into}
+     * @throws DateTimeException if the recognized fields do not form a valid date and time, or the offset is invalid
+     */
+    static EpochTime parseWithOffset(CharSequence text, EpochTime into) {
+        return check(tryParseWithOffset(text, into), text, into);
+    }
+
+    /**
+     * Parses {@code text} like {@link #parseWithOffset}, without throwing.
+     *
+     * @return {@link ParseStatus#OK}, or why the value is invalid, in which case {@code into} is undefined
+     */
+    static ParseStatus tryParseWithOffset(CharSequence text, EpochTime into) {
+        int pos = scan(text, into);
+        if (pos < 0)
+            return ParseStatus.decode(pos);
+        int length = text.length();
+        if (pos < length && text.charAt(pos) == ' ')
+            pos++;
+
+        char sign = charAt(text, pos, length);
+        if (sign == 'Z') {
+            into.set(into.seconds, into.nanos);
+            return ParseStatus.OK;
+        }
+        if ((sign != '+' && sign != '-') || digits(text, pos + 1, 2, length) != 2)
+            return ParseStatus.OK;
+
+        int hours = number(text, pos + 1, 2), minutes = 0, seconds = 0;
+        pos += 3;
+        if (charAt(text, pos, length) == ':')
+            pos++;
+        if (digits(text, pos, 2, length) == 2) {
+            minutes = number(text, pos, 2);
+            pos += 2;
+            if (charAt(text, pos, length) == ':')
+                pos++;
+            if (digits(text, pos, 2, length) == 2)
+                seconds = number(text, pos, 2);
+        }
+        if (hours > 18 || minutes > 59 || seconds > 59)
+            return ParseStatus.INVALID_OFFSET;
+
+        int offsetSeconds = (hours * 60 + minutes) * 60 + seconds;
+        into.set(into.seconds - (sign == '-' ? -offsetSeconds : offsetSeconds), into.nanos);
+        return ParseStatus.OK;
+    }
+
+    private static EpochTime check(ParseStatus status, CharSequence text, EpochTime into) {
+        if (status != ParseStatus.OK)
+            throw status.exception(text);
+        return into;
+    }
+
+    /**
+     * @return the position after the recognized date and time, or a {@link ParseStatus#encode() negative status} if
+     *         they are not valid or there are none
+     */
+    private static int scan(CharSequence text, EpochTime into) {
+        final int length = text.length();
+        int year = DEFAULT_YEAR, month = 1, day = 1;
+        int pos = 0;
+
+        // Date part, one of yyyy-M-d, d/M/yyyy or d-MMM-yyyy
+        int lead = digits(text, 0, 4, length);
+        if (lead == 4 && charAt(text, 4, length) == '-') {
+            int monthDigits = digits(text, 5, 2, length);
+            int dayStart = 5 + monthDigits + 1;
+            int dayDigits = monthDigits > 0 && charAt(text, dayStart - 1, length) == '-'
+                    ? digits(text, dayStart, 2, length) : 0;
+            if (dayDigits > 0) {
+                year = number(text, 0, 4);
+                month = number(text, 5, monthDigits);
+                day = number(text, dayStart, dayDigits);
+                pos = dayStart + dayDigits;
+            }
+        } else if (lead > 0) {
+            int dayDigits = Math.min(lead, 2);
+            char separator = charAt(text, dayDigits, length);
+            if (separator == '/') {
+                int monthDigits = digits(text, dayDigits + 1, 2, length);
+                int yearStart = dayDigits + 1 + monthDigits + 1;
+                if (monthDigits > 0 && charAt(text, yearStart - 1, length) == '/'
+                        && digits(text, yearStart, 4, length) == 4) {
+                    day = number(text, 0, dayDigits);
+                    month = number(text, dayDigits + 1, monthDigits);
+                    year = number(text, yearStart, 4);
+                    pos = yearStart + 4;
+                }
+            } else if (separator == '-') {
+                int monthStart = dayDigits + 1;
+                int yearStart = monthStart + 4;
+                if (isWordChar(charAt(text, monthStart, length)) && isWordChar(charAt(text, monthStart + 1, length))
+                        && isWordChar(charAt(text, monthStart + 2, length))
+                        && charAt(text, monthStart + 3, length) == '-' && digits(text, yearStart, 4, length) == 4) {
+                    day = number(text, 0, dayDigits);
+                    month = monthAbbreviation(text, monthStart);
+                    if (month == 0)
+                        return ParseStatus.UNKNOWN_MONTH.encode();
+                    year = number(text, yearStart, 4);
+                    pos = yearStart + 4;
+                }
+            }
+        }
+        boolean hasDate = pos > 0;
+
+        // Optional separator between the date and the time
+        if (pos < length && isWhitespace(text.charAt(pos)))
+            pos++;
+        if (pos < length && text.charAt(pos) == 'T')
+            pos++;
+
+        // Time part, H:m:s[.fraction]
+        int end = pos;
+        int hour = 0, minute = 0, second = 0, nano = 0;
+        int hourDigits = digits(text, pos, 2, length);
+        int minuteStart = pos + hourDigits + 1;
+        if (hourDigits > 0 && charAt(text, minuteStart - 1, length) == ':') {
+            int minuteDigits = digits(text, minuteStart, 2, length);
+            int secondStart = minuteStart + minuteDigits + 1;
+            if (minuteDigits > 0 && charAt(text, secondStart - 1, length) == ':') {
+                int secondDigits = digits(text, secondStart, 2, length);
+                if (secondDigits > 0) {
+                    hour = number(text, pos, hourDigits);
+                    minute = number(text, minuteStart, minuteDigits);
+                    second = number(text, secondStart, secondDigits);
+
+                    int fractionStart = secondStart + secondDigits;
+                    if (charAt(text, fractionStart, length) == '.')
+                        fractionStart++;
+                    int fractionDigits = digits(text, fractionStart, 9, length);
+                    nano = number(text, fractionStart, fractionDigits)
+                            * (int) EpochTime.POWERS_OF_TEN[9 - fractionDigits];
+                    end = fractionStart + fractionDigits;
+                }
+            }
+        }
+
+        if (!hasDate && end == pos)
+            return ParseStatus.MALFORMED.encode();
+        if (!toEpochTime(year, month, day, hour, minute, second, nano, into))
+            return ParseStatus.INVALID_FIELDS.encode();
+        return end;
+    }
+
+    /**
+     * Parses the canonical {@code yyyy-MM-dd[( |T)HH:mm:ss[.f{1,9}]][Z]} layout by fixed offsets, the fast path of
+     * columns whose values all share it. Whatever it accepts, {@link #parse} parses to the same value.
+     *
+     * @return {@code false}, leaving {@code into} unchanged, if {@code text} does not have exactly that layout
+     * @throws DateTimeException if the fields do not form a valid date and time
+     */
+    static boolean parseIso(CharSequence text, EpochTime into) {
+        ParseStatus status = tryParseIso(text, into);
+        if (status == null)
+            return false;
+        check(status, text, into);
+        return true;
+    }
+
+    /**
+     * Parses {@code text} like {@link #parseIso}, without throwing.
+     *
+     * @return {@code null}, leaving {@code into} unchanged, if {@code text} does not have exactly that layout,
+     *         otherwise {@link ParseStatus#OK} or {@link ParseStatus#INVALID_FIELDS}
+     */
+    static ParseStatus tryParseIso(CharSequence text, EpochTime into) {
+        int length = text.length();
+        if (length > 0 && text.charAt(length - 1) == 'Z')
+            length--;
+        if (length < 10 || text.charAt(4) != '-' || text.charAt(7) != '-')
+            return null;
+        int year = fixedNumber(text, 0, 4), month = fixedNumber(text, 5, 2), day = fixedNumber(text, 8, 2);
+        if ((year | month | day) < 0)
+            return null;
+        if (length == 10)
+            return toStatus(toEpochTime(year, month, day, 0, 0, 0, 0, into));
+
+        char separator = text.charAt(10);
+        if (length < 19 || (separator != ' ' && separator != 'T') || text.charAt(13) != ':'
+                || text.charAt(16) != ':')
+            return null;
+        int hour = fixedNumber(text, 11, 2), minute = fixedNumber(text, 14, 2), second = fixedNumber(text, 17, 2);
+        if ((hour | minute | second) < 0)
+            return null;
+
+        int nano = 0;
+        if (length > 19) {
+            int fractionDigits = length - 20;
+            if (text.charAt(19) != '.' || fractionDigits < 1 || fractionDigits > 9)
+                return null;
+            int fraction = fixedNumber(text, 20, fractionDigits);
+            if (fraction < 0)
+                return null;
+            nano = fraction * (int) EpochTime.POWERS_OF_TEN[9 - fractionDigits];
+        }
+        return toStatus(toEpochTime(year, month, day, hour, minute, second, nano, into));
+    }
+
+    /**
+     * Parses an elapsed time, {@code [-]H:mm:ss[.f]} with up to 9 hour digits, such as MySQL's {@code -838:59:59} or
+     * Postgres' {@code 24:00:00}, into signed seconds and nanoseconds, see {@link EpochTime#setElapsed}.
+     *
+     * @return {@code null}, leaving {@code into} unchanged, if {@code text} does not have exactly that layout or its
+     *         minutes or seconds are out of range, otherwise {@link ParseStatus#OK}
+     */
+    static ParseStatus tryParseElapsed(CharSequence text, EpochTime into) {
+        int length = text.length();
+        int pos = length > 0 && text.charAt(0) == '-' ? 1 : 0;
+        int hourDigits = digits(text, pos, 9, length);
+        if (hourDigits == 0 || charAt(text, pos + hourDigits, length) != ':')
+            return null;
+        int hour = number(text, pos, hourDigits);
+        pos += hourDigits + 1;
+
+        int minuteDigits = digits(text, pos, 2, length);
+        if (minuteDigits == 0 || charAt(text, pos + minuteDigits, length) != ':')
+            return null;
+        int minute = number(text, pos, minuteDigits);
+        pos += minuteDigits + 1;
+
+        int secondDigits = digits(text, pos, 2, length);
+        if (secondDigits == 0)
+            return null;
+        int second = number(text, pos, secondDigits);
+        pos += secondDigits;
+        // Leap seconds and invalid fields are left to the general parser
+        if (minute > 59 || second > 59)
+            return null;
+
+        int nano = 0;
+        if (pos < length) {
+            int fractionDigits = length - pos - 1;
+            if (text.charAt(pos) != '.' || fractionDigits < 1 || fractionDigits > 9)
+                return null;
+            int fraction = fixedNumber(text, pos + 1, fractionDigits);
+            if (fraction < 0)
+                return null;
+            nano = fraction * (int) EpochTime.POWERS_OF_TEN[9 - fractionDigits];
+        }
+
+        long seconds = hour * 3600L + minute * 60 + second;
+        if (text.charAt(0) != '-')
+            into.setElapsed(seconds, nano);
+        else if (nano == 0)
+            into.setElapsed(-seconds, 0);
+        else
+            into.setElapsed(-seconds - 1, EpochTime.NANOS_PER_SECOND - nano);
+        return ParseStatus.OK;
+    }
+
+    private static ParseStatus toStatus(boolean valid) {
+        return valid ? ParseStatus.OK : ParseStatus.INVALID_FIELDS;
+    }
+
+    /**
+     * @return {@code false}, leaving {@code into} unchanged, if the fields do not form a valid date and time
+     */
+    private static boolean toEpochTime(int year, int month, int day, int hour, int minute, int second, int nano,
+            EpochTime into) {
+        int extraDays = 0;
+        if (hour == 24 && minute == 0 && second == 0 && nano == 0) {
+            hour = 0;
+            extraDays = 1;
+        } else if (hour == 23 && minute == 59 && second == 60) {
+            // Leap seconds are smeared into the last second of the day
+            second = 59;
+        }
+
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month) || hour > 23 || minute > 59
+                || second > 59)
+            return false;
+
+        long secondOfDay = (hour * 60L + minute) * 60L + second;
+        into.setLocal((epochDay(year, month, day) + extraDays) * EpochTime.SECONDS_PER_DAY + secondOfDay, nano);
+        return true;
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic ISO date, the same arithmetic as {@link java.time.LocalDate#toEpochDay()}.
+     */
+    static long epochDay(int year, int month, int day) {
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year))
+                total--;
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @return the month of a case insensitive English abbreviation, or 0 if it is not one
+     */
+    private static int monthAbbreviation(CharSequence text, int start) {
+        char c0 = Character.toLowerCase(text.charAt(start));
+        char c1 = Character.toLowerCase(text.charAt(start + 1));
+        char c2 = Character.toLowerCase(text.charAt(start + 2));
+        for (int i = 0; i < MONTH_ABBREVIATIONS.length; i++) {
+            String abbreviation = MONTH_ABBREVIATIONS[i];
+            if (abbreviation.charAt(0) == c0 && abbreviation.charAt(1) == c1 && abbreviation.charAt(2) == c2)
+                return i + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Counts the consecutive ASCII digits starting at {@code start}, up to {@code max}.
+     */
+    private static int digits(CharSequence text, int start, int max, int length) {
+        int end = Math.min(start + max, length);
+        int i = start;
+        while (i < end && isDigit(text.charAt(i)))
+            i++;
+        return i - start;
+    }
+
+    /**
+     * @return the number of exactly {@code count} digits at {@code start}, or -1 if any of them is not a digit
+     */
+    private static int fixedNumber(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c))
+                return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int number(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++)
+            value = value * 10 + (text.charAt(i) - '0');
+        return value;
+    }
+
+    private static char charAt(CharSequence text, int index, int length) {
+        return index < length ? text.charAt(index) : '\0';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordChar(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
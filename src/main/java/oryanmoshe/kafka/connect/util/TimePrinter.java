@@ -0,0 +1,150 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.util.List;
+
+/**
+ * A time format pattern compiled for elapsed times rather than times of the day, the printer of {@code time}
+ * columns.
+ * <p>
+ * MySQL's {@code TIME} ranges from {@code -838:59:59} to {@code 838:59:59} and Postgres' {@code time} reaches
+ * {@code 24:00:00}, none of which is a time of the day. Values are printed straight from their signed seconds and
+ * nanoseconds with integer arithmetic into a per thread buffer: {@code H} is the total number of hours, with as many
+ * digits as it takes, and negative values are prefixed with a {@code -}. Only patterns made of {@code H}, {@code m},
+ * {@code s}, {@code S} and {@code f} fields are compiled, the others are printed as a time of the day by the
+ * {@link PatternPrinter} or the general formatter.
+ */
+final class TimePrinter {
+
+    private static final int LITERAL = 0;
+    private static final int HOURS = 1;
+    private static final int MINUTE = 2;
+    private static final int SECOND = 3;
+    private static final int MILLI = 4;
+    private static final int FRACTION = 5;
+
+    // Digits of the largest long
+    private static final int MAX_DIGITS = 19;
+
+    private final int[] kinds;
+    private final int[] widths;
+    private final String[] literals;
+    private final ThreadLocal<char[]> buffers;
+
+    private TimePrinter(int[] kinds, int[] widths, String[] literals) {
+        this.kinds = kinds;
+        this.widths = widths;
+        this.literals = literals;
+
+        // The sign, and every field at its widest
+        int maxLength = 1;
+        for (int i = 0; i < kinds.length; i++)
+            maxLength += kinds[i] == LITERAL ? literals[i].length() : Math.max(widths[i], MAX_DIGITS);
+        final int bufferLength = maxLength;
+        this.buffers = ThreadLocal.withInitial(() -> new char[bufferLength]);
+    }
+
+    /**
+     * @return the compiled printer, or {@code null} if the pattern has other fields than hours, minutes, seconds and
+     *         fractions of the second, or none of them
+     */
+    static TimePrinter compile(List<TemporalFormatter.Token> tokens) {
+        int[] kinds = new int[tokens.size()];
+        int[] widths = new int[tokens.size()];
+        String[] literals = new String[tokens.size()];
+        boolean hasFields = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            TemporalFormatter.Token token = tokens.get(i);
+            widths[i] = token.count;
+            switch (token.letter) {
+                case 0:
+                    kinds[i] = LITERAL;
+                    literals[i] = token.literal;
+                    continue;
+                case 'H':
+                    kinds[i] = HOURS;
+                    break;
+                case 'm':
+                    kinds[i] = MINUTE;
+                    break;
+                case 's':
+                    kinds[i] = SECOND;
+                    break;
+                case 'S':
+                    kinds[i] = MILLI;
+                    break;
+                case 'f':
+                    kinds[i] = FRACTION;
+                    break;
+                default:
+                    return null;
+            }
+            hasFields = true;
+        }
+        return hasFields ? new TimePrinter(kinds, widths, literals) : null;
+    }
+
+    /**
+     * @param seconds the elapsed seconds, rounded down like {@link EpochTime#seconds}
+     * @param nano    the nanoseconds added to them, from 0 to 999,999,999
+     */
+    String print(long seconds, int nano) {
+        boolean negative = seconds < 0;
+        if (negative) {
+            // The magnitude, e.g. -1.25s is -2s + 750,000,000ns
+            seconds = nano == 0 ? -seconds : -(seconds + 1);
+            nano = nano == 0 ? 0 : EpochTime.NANOS_PER_SECOND - nano;
+        }
+        long hours = seconds / 3600;
+        int secondOfHour = (int) (seconds - hours * 3600);
+
+        char[] buffer = this.buffers.get();
+        int pos = 0;
+        boolean signed = !negative;
+        for (int i = 0; i < this.kinds.length; i++) {
+            int kind = this.kinds[i];
+            if (kind == LITERAL) {
+                String literal = this.literals[i];
+                literal.getChars(0, literal.length(), buffer, pos);
+                pos += literal.length();
+                continue;
+            }
+            // The sign goes in front of the first field
+            if (!signed) {
+                buffer[pos++] = '-';
+                signed = true;
+            }
+            int width = this.widths[i];
+            switch (kind) {
+                case HOURS:
+                    pos = writeNumber(buffer, pos, hours, width);
+                    break;
+                case MINUTE:
+                    pos = writeNumber(buffer, pos, secondOfHour / 60, width);
+                    break;
+                case SECOND:
+                    pos = writeNumber(buffer, pos, secondOfHour % 60, width);
+                    break;
+                case MILLI:
+                    pos = writeNumber(buffer, pos, nano / 1_000_000, width);
+                    break;
+                default:
+                    pos = writeNumber(buffer, pos, nano / EpochTime.POWERS_OF_TEN[9 - width], width);
+            }
+        }
+        return new String(buffer, 0, pos);
+    }
+
+    private static int writeNumber(char[] buffer, int pos, long value, int width) {
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10)
+            digits++;
+        for (int i = digits; i < width; i++)
+            buffer[pos++] = '0';
+        int end = pos + digits;
+        for (int i = end - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+}
@@ -3,58 +3,93 @@ package oryanmoshe.kafka.connect.util;
 import io.debezium.spi.converter.CustomConverter;
 import io.debezium.spi.converter.RelationalColumn;
 
-import java.text.SimpleDateFormat;
-import java.time.Instant;
-import java.util.Date;
+import java.sql.Types;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
-import java.util.TimeZone;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
 
 import org.apache.kafka.connect.data.SchemaBuilder;
 
 public class TimestampConverter implements CustomConverter<SchemaBuilder, RelationalColumn> {
 
-    private static final Map<String, String> MONTH_MAP = Map.ofEntries(Map.entry("jan", "01"), Map.entry("feb", "02"),
-            Map.entry("mar", "03"), Map.entry("apr", "04"), Map.entry("may", "05"), Map.entry("jun", "06"),
-            Map.entry("jul", "07"), Map.entry("aug", "08"), Map.entry("sep", "09"), Map.entry("oct", "10"),
-            Map.entry("nov", "11"), Map.entry("dec", "12"));
     public static final int MILLIS_LENGTH = 13;
 
     public static final String DEFAULT_DATETIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+    // The default with a target.timezone other than UTC, where the literal 'Z' would claim a UTC value
+    public static final String DEFAULT_ZONED_DATETIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
     public static final String DEFAULT_DATE_FORMAT = "YYYY-MM-dd";
     public static final String DEFAULT_TIME_FORMAT = "HH:mm:ss.SSS";
+    public static final int DEFAULT_FORMAT_CACHE_SIZE = 1024;
 
+    // The core types, the TypeHandlers registry adds vendor types such as timestamptz and handlers from the classpath
     public static final List<String> SUPPORTED_DATA_TYPES = List.of("date", "time", "datetime", "timestamp",
             "datetime2");
 
-    private static final String DATETIME_REGEX = "(?<datetime>(?<date>(?:(?<year>\\d{4})-(?<month>\\d{1,2})-(?<day>\\d{1,2}))|(?:(?<day2>\\d{1,2})\\/(?<month2>\\d{1,2})\\/(?<year2>\\d{4}))|(?:(?<day3>\\d{1,2})-(?<month3>\\w{3})-(?<year3>\\d{4})))?(?:\\s?T?(?<time>(?<hour>\\d{1,2}):(?<minute>\\d{1,2}):(?<second>\\d{1,2})\\.?(?<milli>\\d{0,7})?)?))";
-    private static final Pattern regexPattern = Pattern.compile(DATETIME_REGEX);
-
     public String strDatetimeFormat, strDateFormat, strTimeFormat;
+    public int formatCacheSize;
+    // Number of converted string values memoized per column type, 0 to disable
+    public int memoCacheSize;
+    // Fractional second digits of numeric time values: 3 (millis), 6 (micros) or 9 (nanos)
+    public int timePrecision;
     public Boolean debug;
+    public boolean metricsEnabled, metricsPerColumn;
+    // How each supported type's values are emitted, from output.mode and output.mode.<type>
+    public Map<String, OutputMode> outputModes;
 
 //    private final SchemaBuilder datetimeSchema = SchemaBuilder.string().optional().name("oryanmoshe.time.DateTimeString");
 
-    private SimpleDateFormat simpleDatetimeFormatter, simpleDateFormatter, simpleTimeFormatter;
+    // Immutable and thread safe, shared by every registered column converter
+    private ConversionProfile profile;
+    // The profiles of the rules.<n> overrides, indexed by their match patterns
+    private RuleIndex<ConversionProfile> rules;
+    private List<ConversionProfile> ruleProfiles;
 
-    @Override
-    public void configure(Properties props) {
-        this.strDatetimeFormat = props.getProperty("format.datetime", DEFAULT_DATETIME_FORMAT);
-        this.simpleDatetimeFormatter = new SimpleDateFormat(this.strDatetimeFormat);
+    // The registered column converters by <table>.<column>, for the shapes they detected
+    private final Map<String, ColumnConverter> columnConverters = new ConcurrentHashMap<>();
+    // The conversions shared by the columns of each signature
+    private final Map<ConverterSignature, ColumnConverter.Conversion> sharedConversions = new ConcurrentHashMap<>();
 
-        this.strDateFormat = props.getProperty("format.date", DEFAULT_DATE_FORMAT);
-        this.simpleDateFormatter = new SimpleDateFormat(this.strDateFormat);
+    // Only set when metrics are enabled
+    private ConverterMetrics metrics;
+    // Only set when tracing is enabled
+    private ConverterTracing tracing;
 
-        this.strTimeFormat = props.getProperty("format.time", DEFAULT_TIME_FORMAT);
-        this.simpleTimeFormatter = new SimpleDateFormat(this.strTimeFormat);
+    @Override
+    public void configure(Properties props) {
+        // Number of epoch days whose rendered date portion is cached by the date and datetime formats
+        this.formatCacheSize = Integer.parseInt(props.getProperty("format.cache.size",
+                String.valueOf(DEFAULT_FORMAT_CACHE_SIZE)));
+
+        this.memoCacheSize = Integer.parseInt(props.getProperty("memo.cache.size", "0"));
+
+        this.profile = ConversionProfile.of(props, this.formatCacheSize);
+        this.strDatetimeFormat = this.profile.datetimeFormat;
+        this.strDateFormat = this.profile.dateFormat;
+        this.strTimeFormat = this.profile.timeFormat;
+        this.timePrecision = this.profile.timePrecision;
+        this.outputModes = this.profile.outputModes;
+        configureRules(props);
+        this.columnConverters.clear();
+        this.sharedConversions.clear();
 
         this.debug = props.getProperty("debug", "false").equals("true");
 
-        this.simpleDatetimeFormatter.setTimeZone(TimeZone.getTimeZone("UTC"));
-        this.simpleTimeFormatter.setTimeZone(TimeZone.getTimeZone("UTC"));
+        if (this.debug) {
+            for (String format : fallbackFormats())
+                System.out.printf("[TimestampConverter.configure] Format %s uses fields that cannot be compiled, "
+                        + "falling back to the general formatter.%n", format);
+        }
+
+        this.metricsEnabled = props.getProperty("metrics.enabled", "false").equals("true");
+        this.metricsPerColumn = props.getProperty("metrics.per.column", "false").equals("true");
+        configureMetrics(props.getProperty("metrics.name", "default"));
+        configureTracing(props);
 
         if (this.debug)
             System.out.printf(
@@ -68,106 +103,264 @@ public class TimestampConverter implements CustomConverter<SchemaBuilder, Relati
             System.out.printf(
                     "[TimestampConverter.converterFor] Starting to register column. column.name: %s, column.typeName: %s, column.hasDefaultValue: %s, column.defaultValue: %s, column.isOptional: %s%n",
                     column.name(), column.typeName(), column.hasDefaultValue(), column.defaultValue(), column.isOptional());
-        if (SUPPORTED_DATA_TYPES.stream().anyMatch(s -> s.equalsIgnoreCase(column.typeName()))) {
-            boolean isTime = "time".equalsIgnoreCase(column.typeName());
+        TypeHandler handler = column.typeName() == null ? null : TypeHandlers.lookup(column.typeName());
+        if (handler != null) {
+            // Resolve everything that only depends on the column once, the registered converter just parses and
+            // formats
+            String typeName = TypeHandlers.normalize(column.typeName());
+            TemporalKind kind = handler.kind(column.jdbcType());
+            String columnPath = columnPath(column.dataCollection(), column.name());
+            Object defaultValue = !column.isOptional() && column.hasDefaultValue() ? column.defaultValue() : null;
+            // Wide schemas have thousands of columns of the same type, rule and default, which all convert the same
+            // way and share a conversion rather than each holding its own. Only the learned shape and the failure
+            // counts are the column's
+            ConversionProfile profile = profileFor(columnPath);
+            ColumnConverter.Conversion conversion = this.sharedConversions.computeIfAbsent(
+                    new ConverterSignature(profile, typeName, kind, defaultValue),
+                    signature -> share(signature, handler));
+            ColumnConverter columnConverter = new ColumnConverter(conversion);
+            this.columnConverters.put(columnPath, columnConverter);
+
+            Converter converter = columnConverter;
+            if (this.memoCacheSize > 0 && columnConverter.output() == OutputMode.STRING)
+                // The cache itself is shared by every column of the type
+                converter = new MemoizingConverter(columnConverter,
+                        profile.memoCache(typeName, kind, this.memoCacheSize));
+            if (this.metrics != null)
+                converter = new MeteredConverter(converter, kind == TemporalKind.TIME, profile.onFailure,
+                        this.metrics.columnType(typeName),
+                        this.metricsPerColumn ? this.metrics.column(columnPath) : null);
+            // With debug set, every conversion is traced rather than printed, which would lock stdout per value
+            if (this.tracing != null)
+                converter = this.tracing.trace(columnPath, kind == TemporalKind.TIME, converter);
+
             // Use a new SchemaBuilder every time in order to avoid changing "Already set" options
             // in the schema builder between tables.
-            registration.register(SchemaBuilder.string().optional(), rawValue -> {
-                if (rawValue == null) {
-                    // DEBUG
-                    if (this.debug) {
-                        System.out.printf("[TimestampConverter.converterFor] rawValue of %s is null.%n", column.name());
-                    }
-
-                    if (column.isOptional()) {
-                        return null;
-                    }
-                    else if (column.hasDefaultValue()) {
-                        return column.defaultValue();
-                    }
-                    return rawValue;
-                }
-
-                Long millis = getMillis(rawValue.toString(), isTime);
-                if (millis == null)
-                    return rawValue.toString();
-
-                Instant instant = Instant.ofEpochMilli(millis);
-                Date dateObject = Date.from(instant);
-                if (this.debug)
-                    System.out.printf(
-                            "[TimestampConverter.converterFor] Before returning conversion. column.name: %s, column.typeName: %s, millis: %d%n",
-                            column.name(), column.typeName(), millis);
-                switch (column.typeName().toLowerCase()) {
-                    case "time":
-                        return this.simpleTimeFormatter.format(dateObject);
-                    case "date":
-                        return this.simpleDateFormatter.format(dateObject);
-                    default:
-                        return this.simpleDatetimeFormatter.format(dateObject);
-                }
-            });
+            registration.register(columnConverter.schema().optional(), converter);
         }
     }
 
-    private Long getMillis(String timestamp, boolean isTime) {
-        if (timestamp.isBlank())
-            return null;
+    /**
+     * Resolves the conversion shared by the columns of a signature.
+     */
+    private ColumnConverter.Conversion share(ConverterSignature signature, TypeHandler handler) {
+        ConversionProfile profile = signature.profile;
+        TemporalKind kind = signature.kind;
+        return new ColumnConverter(profile.formatter(kind), kind, handler, profile.timePrecision,
+                profile.outputModes.get(signature.typeName), profile.sourceZone, profile.onFailure,
+                signature.defaultValue).conversion();
+    }
 
-        if (timestamp.contains(":") || timestamp.contains("-")) {
-            return milliFromDateString(timestamp);
-        }
+    /**
+     * Resolves the conversion of a column outside of Debezium, e.g. to convert whole arrays of its raw values with
+     * {@link ColumnConverter#convert(CharSequence[], int, Object[])} in a snapshot or reprocessing job. The column is
+     * matched against the rules like a registered one, but is not part of the metrics or the detected shapes.
+     *
+     * @param dataCollection the column's table as Debezium names it, e.g. {@code inventory.orders}, or {@code null}
+     * @param typeName       a type name with a {@link TypeHandler}, e.g. one of the {@link #SUPPORTED_DATA_TYPES}
+     * @throws IllegalArgumentException if the type is not supported
+     */
+    public ColumnConverter columnConverter(String dataCollection, String columnName, String typeName) {
+        TypeHandler handler = TypeHandlers.lookup(typeName);
+        if (handler == null)
+            throw new IllegalArgumentException("Unsupported column type: " + typeName);
+        ConversionProfile profile = profileFor(columnPath(dataCollection, columnName));
+        TemporalKind kind = handler.kind(Types.OTHER);
+        return new ColumnConverter(profile.formatter(kind), kind, handler, profile.timePrecision,
+                profile.outputModes.get(TypeHandlers.normalize(typeName)), profile.sourceZone, profile.onFailure, null);
+    }
 
-        int excessLength = timestamp.length() - MILLIS_LENGTH;
-        long longTimestamp = Long.parseLong(timestamp);
+    /**
+     * @return whether {@code rules.<n>} overrides are configured, so that columns of the same type may convert
+     *         differently depending on their path
+     */
+    boolean hasRules() {
+        return !this.ruleProfiles.isEmpty();
+    }
 
-        if (isTime)
-            return longTimestamp;
+    private ConversionProfile profileFor(String columnPath) {
+        ConversionProfile rule = this.rules.lookup(columnPath);
+        return rule == null ? this.profile : rule;
+    }
 
-        if (excessLength < 0)
-            return longTimestamp * 24 * 60 * 60 * 1000;
+    private static String columnPath(String dataCollection, String columnName) {
+        return dataCollection == null ? columnName : dataCollection + "." + columnName;
+    }
 
-        long millis = longTimestamp / (long) Math.pow(10, excessLength);
-        return millis;
+    /**
+     * Compiles every {@code rules.<n>.match} (a comma separated list of column path patterns) and the settings the
+     * rule overrides into the rule index. The rule with the lowest {@code n} wins when several match a column.
+     */
+    private void configureRules(Properties props) {
+        this.rules = new RuleIndex<>();
+        this.ruleProfiles = new ArrayList<>();
+        for (String key : props.stringPropertyNames()) {
+            if (!key.startsWith("rules.") || !key.endsWith(".match"))
+                continue;
+
+            String number = key.substring("rules.".length(), key.length() - ".match".length());
+            int priority;
+            try {
+                priority = Integer.parseInt(number);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Rule numbers must be integers: " + key);
+            }
+            ConversionProfile ruleProfile = this.profile.override(props, "rules." + number + ".",
+                    this.formatCacheSize);
+            this.ruleProfiles.add(ruleProfile);
+            for (String pattern : props.getProperty(key).split(","))
+                this.rules.add(pattern.trim(), priority, ruleProfile);
+        }
     }
 
-    private Long milliFromDateString(String timestamp) {
-        Matcher matches = regexPattern.matcher(timestamp);
+    private void configureMetrics(String name) {
+        try {
+            if (this.metrics != null)
+                this.metrics.unregister();
+            this.metrics = null;
+            if (!this.metricsEnabled)
+                return;
+
+            this.metrics = new ConverterMetrics(this.metricsPerColumn, this::detectedShapes, this::parseFailures,
+                    fallbackFormats());
+            this.metrics.register(name);
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Could not register the metrics MBean " + name, e);
+        }
+    }
 
-        if (matches.find()) {
-            String year = (matches.group("year") != null ? matches.group("year")
-                    : (matches.group("year2") != null ? matches.group("year2") : matches.group("year3")));
-            String month = (matches.group("month") != null ? matches.group("month")
-                    : (matches.group("month2") != null ? matches.group("month2") : matches.group("month3")));
-            String day = (matches.group("day") != null ? matches.group("day")
-                    : (matches.group("day2") != null ? matches.group("day2") : matches.group("day3")));
-            String hour = matches.group("hour") != null ? matches.group("hour") : "00";
-            String minute = matches.group("minute") != null ? matches.group("minute") : "00";
-            String second = matches.group("second") != null ? matches.group("second") : "00";
-            String milli = matches.group("milli") != null ? matches.group("milli") : "000";
+    private void configureTracing(Properties props) {
+        String name = props.getProperty("metrics.name", "default");
+        try {
+            if (this.tracing != null)
+                this.tracing.unregister();
+            this.tracing = ConverterTracing.of(props, this.debug);
+            if (this.tracing != null)
+                this.tracing.register(name);
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Could not register the trace MBean " + name, e);
+        }
+    }
+
+    /**
+     * @return how many distinct conversions the registered columns share
+     */
+    public int sharedConverterCount() {
+        return this.sharedConversions.size();
+    }
+
+    /**
+     * @return the conversion statistics, or {@code null} if {@code metrics.enabled} is not set
+     */
+    public ConverterMetricsMXBean metrics() {
+        return this.metrics;
+    }
 
-            if (milli.length() > 3)
-                milli = milli.substring(0, 3);
+    /**
+     * @return the sampled conversions of the traced columns, or {@code null} if {@code trace.enabled} is not set
+     */
+    public ConverterTracingMXBean tracing() {
+        return this.tracing;
+    }
 
-            String dateStr = "";
-            dateStr += String.format("%s:%s:%s.%s", ("00".substring(hour.length()) + hour),
-                    ("00".substring(minute.length()) + minute), ("00".substring(second.length()) + second),
-                    (milli + "000".substring(milli.length())));
+    /**
+     * @return the input shape each registered column learned from its string values, keyed by
+     *         {@code <table>.<column>}, with how many times it changed when it did
+     */
+    public Map<String, String> detectedShapes() {
+        Map<String, String> detectedShapes = new TreeMap<>();
+        this.columnConverters.forEach((column, converter) -> {
+            InputShape shape = converter.detectedShape();
+            if (shape == null)
+                return;
+            long changes = converter.shapeChanges();
+            detectedShapes.put(column, changes == 0 ? shape.name() : shape + " (changed " + changes + " times)");
+        });
+        return detectedShapes;
+    }
 
-            if (year != null) {
-                if (month.length() > 2)
-                    month = MONTH_MAP.get(month.toLowerCase());
+    /**
+     * @return how many values of each registered column could not be converted, keyed by {@code <table>.<column>}
+     *         and then by why (a {@code ParseStatus} name), only listing the columns and reasons that occurred
+     */
+    public Map<String, Map<String, Long>> parseFailures() {
+        Map<String, Map<String, Long>> parseFailures = new TreeMap<>();
+        this.columnConverters.forEach((column, converter) -> {
+            Map<ParseStatus, Long> failures = converter.failures();
+            if (failures.isEmpty())
+                return;
+            Map<String, Long> counts = new TreeMap<>();
+            failures.forEach((status, count) -> counts.put(status.name(), count));
+            parseFailures.put(column, counts);
+        });
+        return parseFailures;
+    }
 
-                dateStr = String.format("%s-%s-%sT%sZ", year, ("00".substring(month.length()) + month),
-                        ("00".substring(day.length()) + day), dateStr);
-            } else {
-                dateStr = String.format("%s-%s-%sT%sZ", "2020", "01", "01", dateStr);
+    /**
+     * @return the configured formats that are rendered by the general formatter rather than a compiled printer
+     */
+    public List<String> fallbackFormats() {
+        List<String> fallbackFormats = new ArrayList<>();
+        List<ConversionProfile> profiles = new ArrayList<>(this.ruleProfiles);
+        profiles.add(0, this.profile);
+        for (ConversionProfile profile : profiles) {
+            for (TemporalFormatter formatter : List.of(profile.datetimeFormatter, profile.dateFormatter,
+                    profile.timeFormatter)) {
+                if (!formatter.isCompiled() && !fallbackFormats.contains(formatter.pattern()))
+                    fallbackFormats.add(formatter.pattern());
             }
+        }
+        return fallbackFormats;
+    }
 
-            Date dateObj = Date.from(Instant.parse(dateStr));
-            return dateObj.getTime();
+    /**
+     * @return the statistics of the connector wide memo caches, keyed by {@code <type> (<kind>)}, empty unless
+     *         {@code memo.cache.size} is set
+     */
+    public Map<String, CacheStatistics> memoCacheStatistics() {
+        Map<String, CacheStatistics> statistics = new TreeMap<>();
+        this.profile.memoCaches.forEach((type, cache) -> statistics.put(type, cache.statistics()));
+        return statistics;
+    }
+
+    public CacheStatistics datetimeCacheStatistics() {
+        return this.profile.datetimeFormatter.cacheStatistics();
+    }
+
+    public CacheStatistics dateCacheStatistics() {
+        return this.profile.dateFormatter.cacheStatistics();
+    }
+
+    /**
+     * What the conversion of a registered column depends on. The output mode, failure policy, formatter and time
+     * zones all come from the profile and the type, so columns with equal signatures convert identically.
+     */
+    private static final class ConverterSignature {
+        final ConversionProfile profile;
+        final String typeName;
+        final TemporalKind kind;
+        final Object defaultValue;
+
+        ConverterSignature(ConversionProfile profile, String typeName, TemporalKind kind, Object defaultValue) {
+            this.profile = profile;
+            this.typeName = typeName;
+            this.kind = kind;
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ConverterSignature))
+                return false;
+            ConverterSignature other = (ConverterSignature) o;
+            // Profiles are immutable and shared by the columns of a rule, identity is enough
+            return this.profile == other.profile && this.typeName.equals(other.typeName) && this.kind == other.kind
+                    && Objects.equals(this.defaultValue, other.defaultValue);
         }
 
-        return null;
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(this.profile), this.typeName, this.kind, this.defaultValue);
+        }
     }
 }
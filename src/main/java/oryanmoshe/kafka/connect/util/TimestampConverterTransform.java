@@ -0,0 +1,280 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.common.cache.Cache;
+import org.apache.kafka.common.cache.LRUCache;
+import org.apache.kafka.common.cache.SynchronizedCache;
+import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.connect.connector.ConnectRecord;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.errors.DataException;
+import org.apache.kafka.connect.transforms.Transformation;
+
+/**
+ * The {@link TimestampConverter} conversions as a single message transform, for connectors without Debezium's
+ * converter SPI.
+ * <p>
+ * Rewrites the top level temporal fields of a record's key ({@link Key}) or value ({@link Value}): fields with Kafka
+ * Connect's {@link Date}, {@link Time} or {@link Timestamp} logical types, and the fields listed in
+ * {@code field.types} (e.g. {@code created_at:datetime,birthday:date}), which is also how fields of schemaless values
+ * are picked. Every {@link TimestampConverter} setting applies, rules are matched against {@code <topic>.<field>}.
+ * <p>
+ * The converted schema and the converter of every field are planned once per input schema, and per topic when rules
+ * are configured, so records only have their temporal fields converted.
+ */
+public abstract class TimestampConverterTransform<R extends ConnectRecord<R>> implements Transformation<R> {
+
+    private static final int PLAN_CACHE_SIZE = 16;
+
+    private static final ConfigDef CONFIG_DEF = new ConfigDef()
+            .define("field.types", ConfigDef.Type.LIST, "", ConfigDef.Importance.HIGH,
+                    "Fields without a temporal logical type to convert, as <field>:<type> with a supported column "
+                            + "type, e.g. " + TimestampConverter.SUPPORTED_DATA_TYPES)
+            .define("format.datetime", ConfigDef.Type.STRING, TimestampConverter.DEFAULT_DATETIME_FORMAT,
+                    ConfigDef.Importance.MEDIUM, "Format of datetime, timestamp and datetime2 fields")
+            .define("format.date", ConfigDef.Type.STRING, TimestampConverter.DEFAULT_DATE_FORMAT,
+                    ConfigDef.Importance.MEDIUM, "Format of date fields")
+            .define("format.time", ConfigDef.Type.STRING, TimestampConverter.DEFAULT_TIME_FORMAT,
+                    ConfigDef.Importance.MEDIUM, "Format of time fields")
+            .define("output.mode", ConfigDef.Type.STRING, "string", ConfigDef.Importance.MEDIUM,
+                    "One of string, logical, millis or micros")
+            .define("time.precision", ConfigDef.Type.STRING, "millis", ConfigDef.Importance.LOW,
+                    "Unit of numeric time values, one of millis, micros or nanos")
+            .define("source.timezone", ConfigDef.Type.STRING, "UTC", ConfigDef.Importance.LOW,
+                    "Zone of wall clock datetime values")
+            .define("target.timezone", ConfigDef.Type.STRING, "UTC", ConfigDef.Importance.LOW,
+                    "Zone datetime values are formatted in")
+            .define("on.failure", ConfigDef.Type.STRING, "fail", ConfigDef.Importance.MEDIUM,
+                    "What values that cannot be converted become, one of passthrough, null, default or fail");
+
+    /**
+     * How records of one schema are converted.
+     */
+    private static final class Plan {
+        final Schema schema;
+        // Indexed like the schema's fields, null for the fields that are copied as they are
+        final ColumnConverter[] converters;
+
+        Plan(Schema schema, ColumnConverter[] converters) {
+            this.schema = schema;
+            this.converters = converters;
+        }
+    }
+
+    /**
+     * What plans are cached by: the input schema, and the topic when rules may match its fields differently.
+     */
+    private static final class PlanKey {
+        // null when no rules are configured, the topic makes no difference then
+        final String topic;
+        final Schema schema;
+
+        PlanKey(String topic, Schema schema) {
+            this.topic = topic;
+            this.schema = schema;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PlanKey))
+                return false;
+            PlanKey other = (PlanKey) o;
+            return Objects.equals(this.topic, other.topic) && this.schema.equals(other.schema);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.topic, this.schema);
+        }
+    }
+
+    private TimestampConverter tsConverter;
+    // Lower case supported type name by field name
+    private Map<String, String> fieldTypes;
+    private Cache<PlanKey, Plan> plans;
+    // Converters of schemaless fields by <topic>.<field>
+    private Map<String, ColumnConverter> schemalessConverters;
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        Properties props = new Properties();
+        configs.forEach((key, value) -> {
+            if (value != null)
+                props.put(key, value instanceof List ? ((List<?>) value).stream().map(String::valueOf)
+                        .collect(Collectors.joining(",")) : value.toString());
+        });
+
+        this.fieldTypes = new HashMap<>();
+        for (String fieldType : props.getProperty("field.types", "").split(",")) {
+            if (fieldType.isBlank())
+                continue;
+            int separator = fieldType.lastIndexOf(':');
+            String type = separator < 0 ? "" : TypeHandlers.normalize(fieldType.substring(separator + 1));
+            if (TypeHandlers.lookup(type) == null)
+                throw new IllegalArgumentException("Invalid field.types entry, expected <field>:<type>: " + fieldType);
+            this.fieldTypes.put(fieldType.substring(0, separator).trim(), type);
+        }
+
+        this.tsConverter = new TimestampConverter();
+        this.tsConverter.configure(props);
+        this.plans = new SynchronizedCache<>(new LRUCache<>(PLAN_CACHE_SIZE));
+        this.schemalessConverters = new HashMap<>();
+    }
+
+    @Override
+    public R apply(R record) {
+        Object value = operatingValue(record);
+        if (value == null)
+            return record;
+
+        Schema schema = operatingSchema(record);
+        if (schema == null)
+            return newRecord(record, null, applySchemaless(record.topic(), value));
+        if (schema.type() != Schema.Type.STRUCT)
+            throw new DataException("Only Struct values can be converted, got " + schema.type());
+
+        Plan plan = plan(record.topic(), schema);
+        Struct struct = (Struct) value;
+        Struct converted = new Struct(plan.schema);
+        ColumnConverter[] converters = plan.converters;
+        List<Field> fields = schema.fields();
+        List<Field> convertedFields = plan.schema.fields();
+        for (int i = 0; i < converters.length; i++) {
+            Object fieldValue = struct.get(fields.get(i));
+            ColumnConverter converter = converters[i];
+            converted.put(convertedFields.get(i), converter == null ? fieldValue : converter.convert(fieldValue));
+        }
+        return newRecord(record, plan.schema, converted);
+    }
+
+    private Plan plan(String topic, Schema schema) {
+        // Rules match per topic, a schema shared by several topics then has a plan per topic
+        PlanKey key = new PlanKey(this.tsConverter.hasRules() ? topic : null, schema);
+        Plan plan = this.plans.get(key);
+        if (plan != null)
+            return plan;
+
+        SchemaBuilder builder = SchemaBuilder.struct().name(schema.name()).version(schema.version())
+                .doc(schema.doc());
+        if (schema.isOptional())
+            builder.optional();
+        ColumnConverter[] converters = new ColumnConverter[schema.fields().size()];
+        for (Field field : schema.fields()) {
+            String type = typeName(field);
+            if (type == null) {
+                builder.field(field.name(), field.schema());
+                continue;
+            }
+            ColumnConverter converter = this.tsConverter.columnConverter(topic, field.name(), type);
+            converters[field.index()] = converter;
+            builder.field(field.name(), converter.schema().optional().build());
+        }
+        plan = new Plan(builder.build(), converters);
+        this.plans.put(key, plan);
+        return plan;
+    }
+
+    /**
+     * @return the supported type name the field is converted as, or {@code null} to copy it
+     */
+    private String typeName(Field field) {
+        String type = this.fieldTypes.get(field.name());
+        if (type != null)
+            return type;
+        String name = field.schema().name();
+        if (Date.LOGICAL_NAME.equals(name))
+            return "date";
+        if (Time.LOGICAL_NAME.equals(name))
+            return "time";
+        if (Timestamp.LOGICAL_NAME.equals(name))
+            return "timestamp";
+        return null;
+    }
+
+    private Object applySchemaless(String topic, Object value) {
+        if (!(value instanceof Map))
+            throw new DataException("Only Map values can be converted without a schema, got " + value.getClass());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> converted = new HashMap<>((Map<String, Object>) value);
+        this.fieldTypes.forEach((field, type) -> {
+            if (!converted.containsKey(field))
+                return;
+            ColumnConverter converter = this.schemalessConverters.computeIfAbsent(topic + "." + field,
+                    path -> this.tsConverter.columnConverter(topic, field, type));
+            converted.put(field, converter.convert(converted.get(field)));
+        });
+        return converted;
+    }
+
+    @Override
+    public ConfigDef config() {
+        return CONFIG_DEF;
+    }
+
+    @Override
+    public void close() {
+        this.plans = null;
+        this.schemalessConverters = null;
+    }
+
+    protected abstract Schema operatingSchema(R record);
+
+    protected abstract Object operatingValue(R record);
+
+    protected abstract R newRecord(R record, Schema updatedSchema, Object updatedValue);
+
+    /**
+     * Converts the temporal fields of record keys.
+     */
+    public static class Key<R extends ConnectRecord<R>> extends TimestampConverterTransform<R> {
+        @Override
+        protected Schema operatingSchema(R record) {
+            return record.keySchema();
+        }
+
+        @Override
+        protected Object operatingValue(R record) {
+            return record.key();
+        }
+
+        @Override
+        protected R newRecord(R record, Schema updatedSchema, Object updatedValue) {
+            return record.newRecord(record.topic(), record.kafkaPartition(), updatedSchema, updatedValue,
+                    record.valueSchema(), record.value(), record.timestamp());
+        }
+    }
+
+    /**
+     * Converts the temporal fields of record values.
+     */
+    public static class Value<R extends ConnectRecord<R>> extends TimestampConverterTransform<R> {
+        @Override
+        protected Schema operatingSchema(R record) {
+            return record.valueSchema();
+        }
+
+        @Override
+        protected Object operatingValue(R record) {
+            return record.value();
+        }
+
+        @Override
+        protected R newRecord(R record, Schema updatedSchema, Object updatedValue) {
+            return record.newRecord(record.topic(), record.kafkaPartition(), record.keySchema(), record.key(),
+                    updatedSchema, updatedValue, record.timestamp());
+        }
+    }
+}
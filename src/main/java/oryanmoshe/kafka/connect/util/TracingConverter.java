@@ -0,0 +1,120 @@
+package oryanmoshe.kafka.connect.util;
+
+import io.debezium.spi.converter.CustomConverter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records a sample of a column's conversions into a fixed size ring buffer, keeping the most recent ones.
+ * <p>
+ * The sampling decision uses the thread's own random generator, so unsampled conversions share nothing between
+ * threads. A sampled conversion claims its slot with a single atomic increment and publishes an immutable entry with
+ * an ordered write, so no thread ever waits on another; a reader may miss an entry that is still being written.
+ */
+final class TracingConverter implements CustomConverter.Converter {
+
+    /**
+     * A traced conversion, with its raw value and result already rendered so later changes to them do not show.
+     */
+    static final class Entry {
+        final long sequence;
+        final long epochMilli;
+        final String column;
+        final InputShape shape;
+        final String rawValue;
+        final String result;
+        final long nanos;
+        final String thread;
+
+        Entry(long sequence, long epochMilli, String column, InputShape shape, String rawValue, String result,
+                long nanos, String thread) {
+            this.sequence = sequence;
+            this.epochMilli = epochMilli;
+            this.column = column;
+            this.shape = shape;
+            this.rawValue = rawValue;
+            this.result = result;
+            this.nanos = nanos;
+            this.thread = thread;
+        }
+
+        @Override
+        public String toString() {
+            return Instant.ofEpochMilli(this.epochMilli) + " " + this.column + " [" + this.shape + "] " + this.rawValue
+                    + " -> " + this.result + " in " + this.nanos + " ns on " + this.thread;
+        }
+    }
+
+    private final CustomConverter.Converter delegate;
+    private final String column;
+    private final boolean isTime;
+    private final int sampleEvery;
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * @param sampleEvery traces one conversion in that many, on average
+     * @param capacity    the number of recent conversions kept
+     */
+    TracingConverter(CustomConverter.Converter delegate, String column, boolean isTime, int sampleEvery,
+            int capacity) {
+        this.delegate = delegate;
+        this.column = column;
+        this.isTime = isTime;
+        this.sampleEvery = sampleEvery;
+        this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public Object convert(Object rawValue) {
+        if (this.sampleEvery > 1 && ThreadLocalRandom.current().nextInt(this.sampleEvery) != 0)
+            return this.delegate.convert(rawValue);
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = this.delegate.convert(rawValue);
+        } catch (RuntimeException e) {
+            record(rawValue, "failed with " + e, System.nanoTime() - start);
+            throw e;
+        }
+        record(rawValue, describe(result), System.nanoTime() - start);
+        return result;
+    }
+
+    private void record(Object rawValue, String result, long nanos) {
+        long sequence = this.next.getAndIncrement();
+        // Only sampled conversions get here, the remainder costs nothing next to rendering the entry
+        this.entries.lazySet((int) (sequence % this.entries.length()), new Entry(sequence,
+                System.currentTimeMillis(), this.column, InputShape.of(rawValue, this.isTime), describe(rawValue),
+                result, nanos, Thread.currentThread().getName()));
+    }
+
+    /**
+     * @return the entries in the buffer, oldest first
+     */
+    List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(this.entries.length());
+        for (int i = 0; i < this.entries.length(); i++) {
+            Entry entry = this.entries.get(i);
+            if (entry != null)
+                entries.add(entry);
+        }
+        entries.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+        return entries;
+    }
+
+    void clear() {
+        for (int i = 0; i < this.entries.length(); i++)
+            this.entries.set(i, null);
+    }
+
+    private static String describe(Object value) {
+        return value instanceof String ? "'" + value + "'" : String.valueOf(value);
+    }
+}
@@ -0,0 +1,52 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.util.Set;
+
+/**
+ * Support for a family of column types, looked up by the column's normalized type name when a column is
+ * registered.
+ * <p>
+ * Besides the built-in handlers, implementations listed in
+ * {@code META-INF/services/oryanmoshe.kafka.connect.util.TypeHandler} are loaded with {@link java.util.ServiceLoader},
+ * and replace the built-in handler of the type names they share with it.
+ */
+public abstract class TypeHandler {
+
+    /**
+     * What {@link #normalize} returns for a value that has temporal content but cannot be converted, such as a year
+     * beyond the range of {@link java.time.LocalDate}. It is handled by the column's failure policy like any other
+     * invalid value.
+     */
+    protected static final Object INVALID = ParseStatus.INVALID_FIELDS;
+
+    /**
+     * @return the type names handled, normalized like {@link TypeHandlers#normalize}: lower case, without length or
+     *         precision and with single spaces, e.g. {@code timestamp with time zone}
+     */
+    public abstract Set<String> typeNames();
+
+    /**
+     * @param jdbcType the column's {@link java.sql.Types} code, {@link java.sql.Types#OTHER} if it is not known
+     * @return what the column's values represent, which picks their format and output schema
+     */
+    public abstract TemporalKind kind(int jdbcType);
+
+    /**
+     * Turns vendor specific raw values into ones the converter reads: strings, numbers, {@code java.time},
+     * {@code java.sql} and {@link java.util.Date} values. Only called for handlers that override it.
+     *
+     * @return the value to convert, {@code null} if it has no temporal content, or {@link #INVALID} if it cannot be
+     *         converted
+     */
+    public Object normalize(Object rawValue) {
+        return rawValue;
+    }
+
+    /**
+     * @return whether textual, {@link java.time.OffsetDateTime} and {@link java.time.ZonedDateTime} values carry an
+     *         offset that makes them instants, rather than wall clocks in {@code source.timezone}
+     */
+    public boolean hasOffset() {
+        return false;
+    }
+}
@@ -0,0 +1,181 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * The registry of {@link TypeHandler}s by normalized type name: the built-in handlers, replaced or extended by the
+ * ones {@link ServiceLoader} finds. Loaded once, a column's handler is then a single hash lookup.
+ */
+final class TypeHandlers {
+
+    private static final Map<String, TypeHandler> HANDLERS = load(TypeHandler.class.getClassLoader());
+
+    private TypeHandlers() {
+    }
+
+    /**
+     * @return the handler of a column type, or {@code null} if it is not a supported temporal type
+     */
+    static TypeHandler lookup(String typeName) {
+        return HANDLERS.get(normalize(typeName));
+    }
+
+    /**
+     * @return every supported normalized type name
+     */
+    static Set<String> typeNames() {
+        return HANDLERS.keySet();
+    }
+
+    /**
+     * Lower cases a type name, drops its length or precision and collapses its whitespace, e.g.
+     * {@code TIMESTAMP(6) WITH TIME ZONE} to {@code timestamp with time zone}.
+     */
+    static String normalize(String typeName) {
+        StringBuilder normalized = new StringBuilder(typeName.length());
+        int depth = 0;
+        for (int i = 0; i < typeName.length(); i++) {
+            char c = typeName.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth = Math.max(0, depth - 1);
+            } else if (depth == 0) {
+                if (!Character.isWhitespace(c))
+                    normalized.append(Character.toLowerCase(c));
+                else if (normalized.length() > 0 && normalized.charAt(normalized.length() - 1) != ' ')
+                    normalized.append(' ');
+            }
+        }
+        int length = normalized.length();
+        if (length > 0 && normalized.charAt(length - 1) == ' ')
+            normalized.setLength(length - 1);
+        return normalized.toString();
+    }
+
+    /**
+     * @param loader where the {@code META-INF/services} handlers are looked up
+     */
+    static Map<String, TypeHandler> load(ClassLoader loader) {
+        Map<String, TypeHandler> handlers = new HashMap<>();
+        for (TypeHandler handler : List.of(new DateHandler(), new TimeHandler(), new DatetimeHandler(),
+                new OffsetDatetimeHandler(), new YearHandler()))
+            register(handlers, handler);
+
+        for (TypeHandler handler : ServiceLoader.load(TypeHandler.class, loader))
+            register(handlers, handler);
+        return Collections.unmodifiableMap(handlers);
+    }
+
+    private static void register(Map<String, TypeHandler> handlers, TypeHandler handler) {
+        for (String typeName : handler.typeNames())
+            handlers.put(normalize(typeName), handler);
+    }
+
+    /**
+     * Dates, and Oracle's {@code DATE}, which has a time of the day and is reported as {@link Types#TIMESTAMP}.
+     */
+    static final class DateHandler extends TypeHandler {
+        @Override
+        public Set<String> typeNames() {
+            return Set.of("date");
+        }
+
+        @Override
+        public TemporalKind kind(int jdbcType) {
+            return jdbcType == Types.TIMESTAMP ? TemporalKind.DATETIME : TemporalKind.DATE;
+        }
+    }
+
+    static final class TimeHandler extends TypeHandler {
+        @Override
+        public Set<String> typeNames() {
+            return Set.of("time", "time without time zone");
+        }
+
+        @Override
+        public TemporalKind kind(int jdbcType) {
+            return TemporalKind.TIME;
+        }
+    }
+
+    /**
+     * Wall clock date and time types.
+     */
+    static final class DatetimeHandler extends TypeHandler {
+        @Override
+        public Set<String> typeNames() {
+            return Set.of("datetime", "timestamp", "datetime2", "smalldatetime", "timestamp without time zone");
+        }
+
+        @Override
+        public TemporalKind kind(int jdbcType) {
+            return TemporalKind.DATETIME;
+        }
+    }
+
+    /**
+     * Date and time types whose values carry their offset.
+     */
+    static final class OffsetDatetimeHandler extends TypeHandler {
+        @Override
+        public Set<String> typeNames() {
+            return Set.of("timestamptz", "timestamp with time zone", "datetimeoffset");
+        }
+
+        @Override
+        public TemporalKind kind(int jdbcType) {
+            return TemporalKind.DATETIME;
+        }
+
+        @Override
+        public boolean hasOffset() {
+            return true;
+        }
+    }
+
+    /**
+     * MySQL's {@code YEAR}, converted as the first day of the year.
+     */
+    static final class YearHandler extends TypeHandler {
+        @Override
+        public Set<String> typeNames() {
+            return Set.of("year");
+        }
+
+        @Override
+        public TemporalKind kind(int jdbcType) {
+            return TemporalKind.DATE;
+        }
+
+        @Override
+        public Object normalize(Object rawValue) {
+            if (rawValue instanceof Number) {
+                long year = ((Number) rawValue).longValue();
+                // Neither a fraction nor a year LocalDate cannot represent is silently changed into another year
+                if (year != ((Number) rawValue).doubleValue() || year < Year.MIN_VALUE || year > Year.MAX_VALUE)
+                    return INVALID;
+                return LocalDate.of((int) year, 1, 1);
+            }
+            if (rawValue instanceof Year)
+                return ((Year) rawValue).atDay(1);
+            if (rawValue instanceof CharSequence) {
+                String text = rawValue.toString().trim();
+                if (text.isEmpty())
+                    return null;
+                if (text.chars().allMatch(c -> c >= '0' && c <= '9'))
+                    // Up to 9 digits, Year.MAX_VALUE, rather than an epoch number
+                    return text.length() <= 9 ? LocalDate.of(Integer.parseInt(text), 1, 1) : INVALID;
+            }
+            return rawValue;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Offsets of a time zone, cached per day.
+ * <p>
+ * A day whose surroundings (up to the largest possible offset on either side) have no transition has a single offset
+ * for every instant and every local time in it, which is cached in a direct mapped table like {@link EpochDayCache}.
+ * Only values on the few days around a DST transition take the full {@link ZoneRules} lookup.
+ */
+final class ZoneOffsetCache {
+
+    private static final int CAPACITY = 1024;
+    // No offset is larger than 18 hours
+    private static final long MAX_OFFSET_SECONDS = 18 * 60 * 60;
+    // Offset of a day with a transition around it
+    private static final int TRANSITION = Integer.MIN_VALUE;
+
+    private static final class Entry {
+        final long epochDay;
+        final int offsetSeconds;
+
+        Entry(long epochDay, int offsetSeconds) {
+            this.epochDay = epochDay;
+            this.offsetSeconds = offsetSeconds;
+        }
+    }
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final boolean fixed;
+    private final int fixedOffsetSeconds;
+    private final Entry[] entries;
+
+    private ZoneOffsetCache(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.fixed = this.rules.isFixedOffset();
+        this.fixedOffsetSeconds = this.fixed ? this.rules.getOffset(Instant.EPOCH).getTotalSeconds() : 0;
+        this.entries = this.fixed ? null : new Entry[CAPACITY];
+    }
+
+    /**
+     * @return the cache of {@code zone}, or {@code null} if it is always UTC
+     */
+    static ZoneOffsetCache of(ZoneId zone) {
+        ZoneRules rules = zone.getRules();
+        if (rules.isFixedOffset() && rules.getOffset(Instant.EPOCH).getTotalSeconds() == 0)
+            return null;
+        return new ZoneOffsetCache(zone);
+    }
+
+    ZoneId zone() {
+        return this.zone;
+    }
+
+    /**
+     * @return the offset of the zone at an instant, in seconds
+     */
+    int offsetAt(long epochSecond) {
+        if (this.fixed)
+            return this.fixedOffsetSeconds;
+
+        int offset = dayOffset(Math.floorDiv(epochSecond, EpochTime.SECONDS_PER_DAY));
+        if (offset != TRANSITION)
+            return offset;
+        return this.rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+    }
+
+    /**
+     * @param localSecond a local date and time in the zone, as seconds since 1970-01-01T00:00
+     * @return the instant of the local time, resolved like {@link ZonedDateTime#ofLocal} when it falls in a gap or
+     *         an overlap
+     */
+    long toEpochSecond(long localSecond) {
+        if (this.fixed)
+            return localSecond - this.fixedOffsetSeconds;
+
+        int offset = dayOffset(Math.floorDiv(localSecond, EpochTime.SECONDS_PER_DAY));
+        if (offset != TRANSITION)
+            return localSecond - offset;
+        LocalDateTime local = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+        return ZonedDateTime.ofLocal(local, this.zone, null).toEpochSecond();
+    }
+
+    private int dayOffset(long epochDay) {
+        int index = (int) epochDay & (CAPACITY - 1);
+        Entry entry = this.entries[index];
+        if (entry != null && entry.epochDay == epochDay)
+            return entry.offsetSeconds;
+
+        long start = epochDay * EpochTime.SECONDS_PER_DAY;
+        ZoneOffsetTransition next = this.rules.nextTransition(Instant.ofEpochSecond(start - MAX_OFFSET_SECONDS - 1));
+        boolean uniform = next == null
+                || next.toEpochSecond() > start + EpochTime.SECONDS_PER_DAY + MAX_OFFSET_SECONDS;
+        int offset = uniform ? this.rules.getOffset(Instant.ofEpochSecond(start)).getTotalSeconds() : TRANSITION;
+        this.entries[index] = new Entry(epochDay, offset);
+        return offset;
+    }
+}
@@ -0,0 +1,98 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Guards the bytes a registered converter allocates per conversion, for every column type, output mode and input
+ * shape, against the budgets of {@code allocation-budgets.properties} (keyed by
+ * {@code <column type>.<output mode>.<input shape>}).
+ * <p>
+ * Each case is warmed up so the JIT compiles (and escape analyses) the conversion path, then measured with the
+ * thread's allocation counter over several rounds, keeping the lowest so a stray GC or compilation in one round does
+ * not fail the build. A new case needs a budget, and a budget is only raised on purpose.
+ */
+public class AllocationBudgetTests {
+
+    private static final int WARMUP_CONVERSIONS = 50_000;
+    private static final int MEASURED_CONVERSIONS = 20_000;
+    private static final int ROUNDS = 5;
+
+    private static final Properties BUDGETS = new Properties();
+    private static com.sun.management.ThreadMXBean threads;
+
+    // Keeps the results alive, so the JIT cannot drop the allocations
+    private Object sink;
+
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        try (InputStream budgets = AllocationBudgetTests.class.getResourceAsStream("/allocation-budgets.properties")) {
+            BUDGETS.load(budgets);
+        }
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)
+            threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "datetime, string, string, ", "datetime, string, string, ' '",
+            "datetime, string, string, 18368", "datetime, string, string, 1587042000279",
+            "datetime, string, string, 1587042000279123", "datetime, string, string, 1587042000279123456",
+            "datetime, string, string, 2019-04-19 15:13:20.345", "datetime, string, string, 19/04/2019 15:13:20.345",
+            "datetime, string, string, 19-Apr-2019 15:13:20", "datetime, string, long, 1587042000279",
+            "datetime, string, timestamp, 2019-04-19 15:13:20.345", "date, string, string, 18368",
+            "date, string, string, 2019-04-19", "date, string, long, 18368", "time, string, string, 15:13:20.345",
+            "time, string, string, 55800123", "time, string, long, 55800123",
+            "datetime, millis, string, 2019-04-19 15:13:20.345", "datetime, millis, long, 1587042000279",
+            "datetime, micros, string, 2019-04-19 15:13:20.345123", "date, millis, string, 2019-04-19",
+            "time, micros, string, 15:13:20.345123", "datetime, logical, string, 2019-04-19 15:13:20.345" })
+    void allocationBudgetTest(final String columnType, final String outputMode, final String rawType,
+            final String input) {
+        assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported()
+                && threads.isThreadAllocatedMemoryEnabled(), "the JVM does not count allocated bytes per thread");
+
+        Object rawValue = input == null ? null
+                : rawType.equals("long") ? (Object) Long.valueOf(input)
+                        : rawType.equals("timestamp") ? Timestamp.valueOf(input) : input;
+        InputShape shape = InputShape.of(rawValue, columnType.equals("time"));
+        String key = columnType + "." + outputMode + "." + shape;
+        String budget = BUDGETS.getProperty(key);
+        assertNotNull(budget, "no allocation budget for " + key);
+
+        TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("output.mode", outputMode);
+        tsConverter.configure(props);
+        MockRegistration<SchemaBuilder> registration = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn("inventory.orders", "created_at", columnType), registration);
+
+        for (int i = 0; i < WARMUP_CONVERSIONS; i++)
+            this.sink = registration._converter.convert(rawValue);
+
+        long thread = Thread.currentThread().getId();
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < MEASURED_CONVERSIONS; i++)
+                this.sink = registration._converter.convert(rawValue);
+            lowest = Math.min(lowest, threads.getThreadAllocatedBytes(thread) - before);
+        }
+
+        double bytesPerConversion = (double) lowest / MEASURED_CONVERSIONS;
+        System.out.printf("%s (%s %s): %.1f bytes per conversion%n", key, rawType, input, bytesPerConversion);
+        assertTrue(bytesPerConversion <= Double.parseDouble(budget), String.format(
+                "%s allocates %.1f bytes per conversion of %s %s, over its budget of %s", key, bytesPerConversion,
+                rawType, input, budget));
+    }
+}
@@ -0,0 +1,270 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ColumnConverterTests {
+
+    @ParameterizedTest
+    @CsvSource({ "2019-04-19 15:13:20, 2019-04-19T15:13:20.000Z", "1587042000279, 2020-04-16T13:00:00.279Z",
+            "0000-00-00 00:00:00, 0000-00-00 00:00:00", "," })
+    void defaultValueTest(final String defaultValue, final String expectedResult) {
+        ColumnConverter converter = new ColumnConverter(
+                TemporalFormatter.ofPattern(TimestampConverter.DEFAULT_DATETIME_FORMAT), false, defaultValue);
+
+        assertEquals(expectedResult, converter.convert(null), "null should convert to the converted default value");
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "date, 18368, 2020-04-16", "time, 2230, 00:00:02.230", "datetime, 1587042000279, 2020-04-16T13:00:00.279Z",
+            "datetime, ' ', ' '" })
+    void convertTest(final String columnType, final String input, final String expectedResult) {
+        boolean isTime = columnType.equals("time");
+        String pattern = isTime ? TimestampConverter.DEFAULT_TIME_FORMAT
+                : columnType.equals("date") ? TimestampConverter.DEFAULT_DATE_FORMAT
+                        : TimestampConverter.DEFAULT_DATETIME_FORMAT;
+        ColumnConverter converter = new ColumnConverter(TemporalFormatter.ofPattern(pattern), isTime, null);
+
+        assertEquals(expectedResult, converter.convert(input));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "1587042000279, 2020-04-16T13:00:00.279000000", "1587042000279123, 2020-04-16T13:00:00.279123000",
+            "1587042000279123456, 2020-04-16T13:00:00.279123456", "158704200027912, 2020-04-16T13:00:00.279120000",
+            "2019-04-19 15:13:20.3451237, 2019-04-19T15:13:20.345123700", "18368, 2020-04-16T00:00:00.000000000" })
+    void precisionTest(final String input, final String expectedResult) {
+        ColumnConverter converter = new ColumnConverter(
+                TemporalFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.fffffffff"), false, null);
+
+        assertEquals(expectedResult, converter.convert(input));
+        assertEquals(expectedResult, converter.convert(input.contains("-") ? input : Long.valueOf(input)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "3, 55800123, 15:30:00.123000", "6, 55800123456, 15:30:00.123456", "9, 55800123456789, 15:30:00.123456" })
+    void timePrecisionTest(final int timePrecision, final long input, final String expectedResult) {
+        ColumnConverter converter = new ColumnConverter(TemporalFormatter.ofPattern("HH:mm:ss.ffffff"),
+                TemporalKind.TIME, null, timePrecision, OutputMode.STRING, null, FailurePolicy.FAIL, null);
+
+        assertEquals(expectedResult, converter.convert(input));
+        assertEquals(expectedResult, converter.convert(String.valueOf(input)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "90000000, 25:00:00.000000, 3600000", "838:59:59, 838:59:59.000000, 82799000",
+            "-838:59:59, -838:59:59.000000, 3601000", "-12:30:00.25, -12:30:00.250000, 41399750",
+            "24:00:00, 24:00:00.000000, 0", "2019-04-19 15:13:20.345, 15:13:20.345000, 54800345",
+            "23:59:60, 23:59:59.000000, 86399000" })
+    void elapsedTimeTest(final String input, final String expectedString, final int expectedMillis) {
+        ColumnConverter converter = new ColumnConverter(TemporalFormatter.ofPattern("HH:mm:ss.ffffff"),
+                TemporalKind.TIME, null, 3, OutputMode.STRING, null, FailurePolicy.FAIL, null);
+        ColumnConverter millis = new ColumnConverter(TemporalFormatter.ofPattern("HH:mm:ss.ffffff"),
+                TemporalKind.TIME, null, 3, OutputMode.MILLIS, null, FailurePolicy.FAIL, null);
+
+        assertEquals(expectedString, converter.convert(input));
+        assertEquals(expectedMillis, millis.convert(input));
+        if (!input.contains(":")) {
+            assertEquals(expectedString, converter.convert(Long.valueOf(input)));
+            long[] rawValues = { Long.parseLong(input) };
+            Object[] out = new Object[1];
+            converter.convert(rawValues, 1, out);
+            assertEquals(expectedString, out[0]);
+        }
+        Object[] out = new Object[1];
+        converter.convert(new CharSequence[] { input }, 1, out);
+        assertEquals(expectedString, out[0]);
+    }
+
+    @Test
+    void elapsedTypedTest() {
+        ColumnConverter converter = new ColumnConverter(TemporalFormatter.ofPattern("HH:mm:ss.fffffffff"),
+                TemporalKind.TIME, null, 6, OutputMode.STRING, null, FailurePolicy.FAIL, null);
+
+        assertEquals("-01:00:00.000000001", converter.convert(Duration.ofHours(-1).minusNanos(1)));
+        assertEquals("34:17:36.789000000", converter.convert(Duration.ofSeconds(123456, 789000000)));
+        assertEquals("15:13:20.000000100", converter.convert(LocalTime.of(15, 13, 20, 100)));
+        assertEquals("25:00:00.000001000", converter.convert(90000000001L));
+        assertEquals("-00:00:00.000001000", converter.convert(-1L));
+        // Formats with a date keep printing the time of the day
+        ColumnConverter dated = new ColumnConverter(TemporalFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+                TemporalKind.TIME, null, 3, OutputMode.STRING, null, FailurePolicy.FAIL, null);
+        assertEquals("1970-01-02 01:00:00", dated.convert(90000000L));
+        assertEquals("2020-01-01 15:13:20", dated.convert("15:13:20"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "passthrough, 0000-00-00 00:00:00, infinity", "null, , ",
+            "default, 2019-04-19T15:13:20.000Z, 2019-04-19T15:13:20.000Z" })
+    void onFailureTest(final String policy, final String expectedInvalid, final String expectedMalformed) {
+        ColumnConverter converter = new ColumnConverter(
+                TemporalFormatter.ofPattern(TimestampConverter.DEFAULT_DATETIME_FORMAT), TemporalKind.DATETIME, null, 3,
+                OutputMode.STRING, null, FailurePolicy.of(policy), "2019-04-19 15:13:20");
+
+        assertEquals(expectedInvalid, converter.convert("0000-00-00 00:00:00"));
+        // Once through the general path, once through the learned shape's
+        assertEquals(expectedInvalid, converter.convert("0000-00-00 00:00:00"));
+        assertEquals(expectedMalformed, converter.convert("infinity"));
+        assertEquals(" ", converter.convert(" "), "blank values should not be failures");
+        assertEquals("2020-04-16T13:00:00.279Z", converter.convert("1587042000279"));
+        assertEquals(Map.of(ParseStatus.INVALID_FIELDS, 2L, ParseStatus.MALFORMED, 1L), converter.failures());
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "passthrough, -infinity, -infinity", "passthrough, N/A-, N/A-", "passthrough, -1, -1",
+            "null, -infinity, ", "null, N/A-, ", "null, -1, ", "default, -infinity, 2019-04-19T15:13:20.000Z",
+            "default, N/A-, 2019-04-19T15:13:20.000Z", "default, -1, 2019-04-19T15:13:20.000Z", "fail, -infinity, ",
+            "fail, N/A-, ", "fail, -1, " })
+    void separatorOnlyTest(final String policy, final String input, final String expected) {
+        ColumnConverter converter = new ColumnConverter(
+                TemporalFormatter.ofPattern(TimestampConverter.DEFAULT_DATETIME_FORMAT), TemporalKind.DATETIME, null, 3,
+                OutputMode.STRING, null, FailurePolicy.of(policy), "2019-04-19 15:13:20");
+
+        // A '-' or ':' without any date or time field is not a value anchored on 2020-01-01
+        for (int i = 0; i < 2; i++) {
+            if (policy.equals("fail"))
+                assertThrows(DateTimeException.class, () -> converter.convert(input), input);
+            else
+                assertEquals(expected, converter.convert(input), input);
+        }
+        assertEquals(Map.of(ParseStatus.MALFORMED, 2L), converter.failures());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "infinity", "+", "99999999999999999999", "0000-00-00", "19-Foo-2019", "2019-02-29 10:00",
+            "-infinity", "N/A-", "-1" })
+    void failTest(final String input) {
+        ColumnConverter converter = new ColumnConverter(
+                TemporalFormatter.ofPattern(TimestampConverter.DEFAULT_DATETIME_FORMAT), false, null);
+
+        assertThrows(DateTimeException.class, () -> converter.convert(input), input);
+        assertThrows(DateTimeException.class, () -> converter.convert(new CharSequence[] { input }, 1, new Object[1]),
+                input);
+        assertEquals(2L, converter.failures().values().stream().mapToLong(Long::longValue).sum(), input);
+    }
+
+    @Test
+    void typedPrecisionTest() {
+        ColumnConverter converter = new ColumnConverter(TemporalFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.fffffffff"),
+                false, null);
+
+        assertEquals("2019-04-19 15:13:20.123456789",
+                converter.convert(Timestamp.valueOf(LocalDateTime.of(2019, 4, 19, 15, 13, 20, 123456789))));
+        assertEquals("2019-04-19 15:13:20.000001000",
+                converter.convert(Instant.parse("2019-04-19T15:13:20.000001Z")));
+        assertEquals("2020-01-01 15:13:20.000000100", converter.convert(LocalTime.of(15, 13, 20, 100)));
+        assertEquals("1969-12-31 23:59:59.999999999", converter.convert(Duration.ofNanos(-1)));
+    }
+
+    @Test
+    void shapeLearningTest() {
+        ColumnConverter converter = new ColumnConverter(
+                TemporalFormatter.ofPattern(TimestampConverter.DEFAULT_DATETIME_FORMAT), false, "2019-04-19 15:13:20");
+        assertNull(converter.detectedShape(), "the default value should not be learned");
+
+        assertEquals("2020-04-16T13:00:00.279Z", converter.convert("1587042000279"));
+        assertEquals(InputShape.EPOCH_MILLIS, converter.detectedShape());
+        assertEquals("2020-04-16T13:00:00.279Z", converter.convert("1587042000279123"));
+        assertEquals(" ", converter.convert(" "));
+        assertEquals("2020-04-16T13:00:00.279Z", converter.convert(1587042000279L));
+        assertEquals(InputShape.EPOCH_MILLIS, converter.detectedShape());
+        assertEquals(0, converter.shapeChanges());
+
+        assertEquals("2019-04-19T15:13:20.345Z", converter.convert("2019-04-19 15:13:20.345"));
+        assertEquals("2019-04-19T15:13:20.000Z", converter.convert("2019-04-19 15:13:20+02:00"));
+        assertEquals(InputShape.ISO, converter.detectedShape());
+        assertEquals("2019-04-19T15:13:20.345Z", converter.convert("19-Apr-2019 15:13:20.345"));
+        assertEquals(InputShape.DAY_MONTH_NAME_YEAR, converter.detectedShape());
+        assertEquals(2, converter.shapeChanges());
+    }
+
+    @Test
+    void learnedDispatchTest() {
+        String[] inputs = { "18368", "1587042000279", "1587042000279123", "1587042000279123456", "0001587042000279",
+                "2019-04-19", "2019-04-19 15:13:20.345", "2019-04-19T15:13:20.345123Z", "2019-4-19 3:13:20",
+                "19/04/2019 15:13:20.345", "19-Apr-2019 15:13:20", "9-DEC-1970", "15:13:20.345", "5:13:20", " ",
+                "2019-04-19 15:13:20+02:00" };
+        TemporalFormatter formatter = TemporalFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.fffffffff");
+        for (boolean isTime : new boolean[] { false, true }) {
+            Random random = new Random(20200416L);
+            for (int i = 0; i < 10_000; i++) {
+                // Runs of the same shape with random switches, so every learned path meets every other shape
+                String input = inputs[random.nextInt(inputs.length)];
+                ColumnConverter converter = new ColumnConverter(formatter, isTime, null);
+                for (int n = 0; n < 3; n++) {
+                    String next = random.nextInt(4) == 0 ? inputs[random.nextInt(inputs.length)] : input;
+                    EpochTime expected = new EpochTime();
+                    boolean temporal = ColumnConverter.toEpochTime(next, isTime, 3, expected) == ParseStatus.OK;
+                    assertEquals(temporal ? formatter.format(expected.seconds, expected.nanos) : next,
+                            converter.convert(next), next + " after " + converter.detectedShape());
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "date, string", "time, string", "datetime, string", "date, millis", "time, micros",
+            "datetime, micros", "datetime, logical" })
+    void batchTest(final String columnType, final String outputMode) {
+        TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("output.mode", outputMode);
+        props.put("source.timezone", "Europe/Berlin");
+        tsConverter.configure(props);
+        String[] inputs = { "18368", "1587042000279", "1587042000279123", "2019-04-19 15:13:20.345",
+                "19/04/2019 15:13:20.345", "15:13:20.345", " ", null, "2019-03-31 02:30:00" };
+
+        Random random = new Random(columnType.hashCode());
+        int count = 1000;
+        CharSequence[] texts = new CharSequence[count + 1];
+        long[] numbers = new long[count + 1];
+        for (int i = 0; i < count; i++) {
+            String input = inputs[random.nextInt(inputs.length)];
+            texts[i] = i % 2 == 0 || input == null ? input : new StringBuilder(input);
+            numbers[i] = random.nextInt(3) == 0 ? random.nextInt(100_000) : 1587042000279L + random.nextInt();
+        }
+
+        // A fresh converter per value, so the batch's shape learning is checked too
+        Object[] expected = new Object[count];
+        Object[] expectedNumbers = new Object[count];
+        for (int i = 0; i < count; i++) {
+            ColumnConverter single = tsConverter.columnConverter("inventory.orders", "created", columnType);
+            expected[i] = single.convert(texts[i] == null ? null : texts[i].toString());
+            expectedNumbers[i] = single.convert(numbers[i]);
+        }
+
+        ColumnConverter converter = tsConverter.columnConverter("inventory.orders", "created", columnType);
+        Object[] out = new Object[count + 1];
+        converter.convert(texts, count, out);
+        assertArrayEquals(expected, Arrays.copyOf(out, count));
+        assertNull(out[count], "only the first count values should be converted");
+        converter.convert(numbers, count, out);
+        assertArrayEquals(expectedNumbers, Arrays.copyOf(out, count));
+
+        long[] longs = new long[count];
+        if (converter.output() == OutputMode.STRING || converter.output() == OutputMode.LOGICAL) {
+            assertThrows(UnsupportedOperationException.class, () -> converter.convert(numbers, count, longs));
+            return;
+        }
+        converter.convert(numbers, count, longs);
+        for (int i = 0; i < count; i++)
+            assertEquals(((Number) expectedNumbers[i]).longValue(), longs[i], "at " + numbers[i]);
+    }
+}
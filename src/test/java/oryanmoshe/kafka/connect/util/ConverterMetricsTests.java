@@ -0,0 +1,148 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConverterMetricsTests {
+
+    @Test
+    void metricsDisabledTest() {
+        TimestampConverter tsConverter = new TimestampConverter();
+        tsConverter.configure(new Properties());
+
+        assertNull(tsConverter.metrics());
+    }
+
+    @Test
+    void columnMetricsTest() throws Exception {
+        TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("metrics.enabled", "true");
+        props.put("metrics.per.column", "true");
+        props.put("metrics.name", "columnMetricsTest");
+        tsConverter.configure(props);
+
+        MockRegistration<SchemaBuilder> created = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.orders", "created", "datetime", false, true, "2019-04-19 15:13:20"),
+                created);
+        MockRegistration<SchemaBuilder> shipped = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.orders", "shipped", "datetime"), shipped);
+
+        created._converter.convert("2019-04-19 15:13:20.345");
+        created._converter.convert(1587042000279L);
+        created._converter.convert(null);
+        shipped._converter.convert("19/04/2019 15:13:20");
+        shipped._converter.convert(" ");
+        shipped._converter.convert(null);
+        assertThrows(RuntimeException.class, () -> shipped._converter.convert("2019-13-01"));
+
+        ConversionStatistics datetime = tsConverter.metrics().getColumnTypes().get("datetime");
+        assertEquals(7, datetime.getConversions());
+        assertEquals(2, datetime.getNulls());
+        assertEquals(1, datetime.getDefaults());
+        assertEquals(1, datetime.getPassthroughs());
+        assertEquals(1, datetime.getFailures());
+        assertEquals(Map.of("NULL", 2L, "BLANK", 1L, "EPOCH_MILLIS", 1L, "ISO", 2L, "DAY_MONTH_YEAR", 1L),
+                datetime.getShapes());
+        assertEquals(6, datetime.getLatencyHistogram().values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(datetime.getLatencyP99Nanos() >= datetime.getLatencyP50Nanos());
+
+        Map<String, ConversionStatistics> columns = tsConverter.metrics().getColumns();
+        assertEquals(3, columns.get("db.orders.created").getConversions());
+        assertEquals(4, columns.get("db.orders.shipped").getConversions());
+        assertEquals(Map.of("db.orders.shipped", Map.of("INVALID_FIELDS", 1L)),
+                tsConverter.metrics().getParseFailures());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = ConverterMetrics.objectName("columnMetricsTest");
+        TabularData columnTypes = (TabularData) server.getAttribute(objectName, "ColumnTypes");
+        CompositeData row = columnTypes.get(new Object[] { "datetime" });
+        assertNotNull(row);
+        assertEquals(7L, ((CompositeData) row.get("value")).get("conversions"));
+        TabularData parseFailures = (TabularData) server.getAttribute(objectName, "ParseFailures");
+        assertNotNull(parseFailures.get(new Object[] { "db.orders.shipped" }));
+
+        // The invalid value moved the shipped column from d/M/yyyy to ISO
+        assertEquals(Map.of("db.orders.created", "ISO", "db.orders.shipped", "ISO (changed 1 times)"),
+                tsConverter.metrics().getDetectedShapes());
+        TabularData detectedShapes = (TabularData) server.getAttribute(objectName, "DetectedShapes");
+        assertEquals("ISO", detectedShapes.get(new Object[] { "db.orders.created" }).get("value"));
+
+        tsConverter.metrics().reset();
+        assertEquals(0, datetime.getConversions());
+
+        // Reconfiguring replaces the registration instead of leaking it
+        tsConverter.configure(new Properties());
+        assertTrue(server.queryNames(objectName, null).isEmpty());
+    }
+
+    @Test
+    void fallbackFormatsTest() throws Exception {
+        TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("metrics.enabled", "true");
+        props.put("metrics.name", "fallbackFormatsTest");
+        props.put("format.date", "yyyy 'week' w");
+        props.put("rules.1.match", "db.orders.*");
+        props.put("rules.1.format.datetime", "yyyy-MM-dd G");
+        tsConverter.configure(props);
+
+        List<String> expected = List.of("yyyy 'week' w", "yyyy-MM-dd G");
+        assertEquals(expected, tsConverter.metrics().getFallbackFormats());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(expected, List.of((String[]) server.getAttribute(
+                ConverterMetrics.objectName("fallbackFormatsTest"), "FallbackFormats")));
+
+        // Unregisters the metrics MBean
+        tsConverter.configure(new Properties());
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "passthrough, 2, 0", "null, 0, 0", "default, 0, 2", "fail, 0, 0" })
+    void failurePolicyMetricsTest(String policy, long passthroughs, long defaults) {
+        TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("metrics.enabled", "true");
+        props.put("metrics.name", "failurePolicyMetricsTest");
+        props.put("on.failure", policy);
+        tsConverter.configure(props);
+
+        MockRegistration<SchemaBuilder> created = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.orders", "created", "datetime", false, true, "2019-04-19 15:13:20"),
+                created);
+        created._converter.convert("2019-04-19 15:13:20");
+        for (String invalid : new String[] { "2019-13-01", "infinity" }) {
+            if (policy.equals("fail"))
+                assertThrows(RuntimeException.class, () -> created._converter.convert(invalid));
+            else
+                created._converter.convert(invalid);
+        }
+
+        ConversionStatistics datetime = tsConverter.metrics().getColumnTypes().get("datetime");
+        assertEquals(3, datetime.getConversions());
+        assertEquals(2, datetime.getFailures());
+        assertEquals(passthroughs, datetime.getPassthroughs());
+        assertEquals(defaults, datetime.getDefaults());
+
+        // Unregisters the metrics MBean
+        tsConverter.configure(new Properties());
+    }
+}
@@ -0,0 +1,189 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConverterTracingTests {
+
+    private static TimestampConverter tracingConverter(String name, String sampleEvery, String columns,
+            String bufferSize) {
+        TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("trace.enabled", "true");
+        props.put("trace.sample.every", sampleEvery);
+        props.put("trace.columns", columns);
+        props.put("trace.buffer.size", bufferSize);
+        props.put("metrics.name", name);
+        tsConverter.configure(props);
+        return tsConverter;
+    }
+
+    @Test
+    void tracingDisabledTest() {
+        TimestampConverter tsConverter = new TimestampConverter();
+        tsConverter.configure(new Properties());
+        assertNull(tsConverter.tracing());
+
+        MockRegistration<SchemaBuilder> registration = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.orders", "created", "datetime"), registration);
+        assertSame(ColumnConverter.class, registration._converter.getClass());
+    }
+
+    @Test
+    void traceTest() {
+        TimestampConverter tsConverter = tracingConverter("traceTest", "1", "", "64");
+        MockRegistration<SchemaBuilder> registration = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.orders", "created", "datetime"), registration);
+
+        registration._converter.convert("2019-04-19 15:13:20.345");
+        registration._converter.convert(null);
+        assertThrows(RuntimeException.class, () -> registration._converter.convert("2019-13-01"));
+
+        List<String> conversions = tsConverter.tracing().getRecentConversions();
+        assertEquals(3, conversions.size());
+        assertTrue(conversions.get(0).contains(
+                " db.orders.created [ISO] '2019-04-19 15:13:20.345' -> '2019-04-19T15:13:20.345Z' in "),
+                conversions.get(0));
+        assertTrue(conversions.get(1).contains(" db.orders.created [NULL] null -> null in "), conversions.get(1));
+        assertTrue(conversions.get(2).contains(" db.orders.created [ISO] '2019-13-01' -> failed with "),
+                conversions.get(2));
+
+        assertEquals(3, tsConverter.tracing().flushToLog());
+        tsConverter.tracing().clear();
+        assertEquals(List.of(), tsConverter.tracing().getRecentConversions());
+    }
+
+    @Test
+    void debugTest() {
+        TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("debug", "true");
+        props.put("metrics.name", "debugTest");
+        tsConverter.configure(props);
+        MockRegistration<SchemaBuilder> registration = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.orders", "created", "datetime"), registration);
+
+        // Every conversion is traced instead of printed
+        for (int i = 0; i < 10; i++)
+            registration._converter.convert("2019-04-19 15:13:20.345");
+        assertEquals(10, tsConverter.tracing().getRecentConversions().size());
+
+        // Unregisters the trace MBean
+        tsConverter.configure(new Properties());
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "3, 1, 1", "10, 16, 16", "100, 64, 64", "100, 100, 100", "250, 100, 100" })
+    void bufferWrapTest(int conversions, int bufferSize, int capacity) {
+        TimestampConverter tsConverter = tracingConverter("bufferWrapTest", "1", "", String.valueOf(bufferSize));
+        MockRegistration<SchemaBuilder> registration = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.orders", "created", "datetime"), registration);
+
+        for (int i = 0; i < conversions; i++)
+            registration._converter.convert((long) i);
+
+        // The most recent conversions are kept, oldest first
+        List<String> traced = tsConverter.tracing().getRecentConversions();
+        int kept = Math.min(conversions, capacity);
+        assertEquals(kept, traced.size());
+        for (int i = 0; i < kept; i++)
+            assertTrue(traced.get(i).contains("] " + (conversions - kept + i) + " -> "), traced.get(i));
+    }
+
+    @Test
+    void columnFilterTest() {
+        TimestampConverter tsConverter = tracingConverter("columnFilterTest", "1", "db.orders.*, *.*.updated", "64");
+        MockRegistration<SchemaBuilder> created = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.orders", "created", "datetime"), created);
+        MockRegistration<SchemaBuilder> updated = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.customers", "updated", "datetime"), updated);
+        MockRegistration<SchemaBuilder> birthday = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.customers", "birthday", "date"), birthday);
+
+        created._converter.convert("2019-04-19 15:13:20");
+        updated._converter.convert("2019-04-19 15:13:20");
+        birthday._converter.convert("2019-04-19");
+
+        List<String> conversions = tsConverter.tracing().getRecentConversions();
+        assertEquals(2, conversions.size());
+        assertTrue(conversions.stream().noneMatch(conversion -> conversion.contains("birthday")));
+    }
+
+    @Test
+    void samplingTest() {
+        TimestampConverter tsConverter = tracingConverter("samplingTest", "10", "", "4096");
+        MockRegistration<SchemaBuilder> registration = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.orders", "created", "datetime"), registration);
+
+        for (int i = 0; i < 20_000; i++)
+            registration._converter.convert("2019-04-19 15:13:20");
+
+        // About 2000, far from both 0 and every conversion
+        int traced = tsConverter.tracing().getRecentConversions().size();
+        assertTrue(traced > 1_500 && traced < 2_500, String.valueOf(traced));
+    }
+
+    @Test
+    void concurrentTracingTest() throws Exception {
+        TimestampConverter tsConverter = tracingConverter("concurrentTracingTest", "1", "", "1024");
+        MockRegistration<SchemaBuilder> registration = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.orders", "created", "datetime"), registration);
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++)
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++)
+                        assertEquals("2019-04-19T15:13:20.000Z", registration._converter.convert("2019-04-19 15:13:20"));
+                });
+            for (Future<?> future : futures)
+                future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        // Every slot ends up with one of the 40000 conversions
+        assertEquals(1024, tsConverter.tracing().getRecentConversions().size());
+    }
+
+    @Test
+    void mbeanTest() throws Exception {
+        TimestampConverter tsConverter = tracingConverter("mbeanTest", "1", "", "64");
+        MockRegistration<SchemaBuilder> registration = new MockRegistration<>();
+        tsConverter.converterFor(new MockColumn("db.orders", "created", "date"), registration);
+        registration._converter.convert("2019-04-19");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = ConverterMetrics.objectName("TimestampConverterTrace", "mbeanTest");
+        String[] conversions = (String[]) server.getAttribute(name, "RecentConversions");
+        assertEquals(1, conversions.length);
+        assertTrue(conversions[0].contains(" db.orders.created [ISO] '2019-04-19' -> '2019-04-19' in "),
+                conversions[0]);
+        assertEquals(1, server.invoke(name, "flushToLog", null, null));
+
+        // Reconfiguring without tracing unregisters the MBean
+        tsConverter.configure(new Properties());
+        assertTrue(!server.isRegistered(name));
+    }
+}
@@ -0,0 +1,609 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Differential fuzzing of the converter against a straightforward {@code java.time} reference: randomized corpora of
+ * the raw values the MySQL, Postgres, SQL Server and Oracle connectors hand over, epoch numbers of every precision,
+ * single digit fields, month abbreviations, edge dates (leap days, 1970, 9999 and invalid dates) and MySQL's elapsed
+ * times are converted by both, and any difference fails the test with the minimal inputs it shrinks to.
+ * <p>
+ * Every value goes through a column that learned its shape (the specialized path) and a column of mixed shapes (the
+ * general path). The corpus is split into chunks converted in parallel, each with its own generator seeded from
+ * {@code fuzz.seed}, so a run is reproducible whatever the number of cores. Larger corpora are run with e.g.
+ * {@code mvn test -Dtest=DifferentialFuzzTests -Dfuzz.values=10000000 -Dfuzz.seed=42}.
+ */
+public class DifferentialFuzzTests {
+
+    private static final int VALUES = Integer.getInteger("fuzz.values", 20_000);
+    private static final long SEED = Long.getLong("fuzz.seed", 20190419L);
+    private static final int CHUNK_SIZE = 4096;
+    private static final int REPORTED_FAILURES = 20;
+
+    private static final String FAILED = "<failed>";
+    private static final Pattern UNSIGNED_YEAR = Pattern.compile("\\+(\\d{5,})");
+    private static final Pattern ELAPSED = Pattern.compile("(-?)(\\d{1,9}):([0-5]?\\d):([0-5]?\\d)(?:\\.(\\d{1,9}))?");
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDate DEFAULT_DATE = LocalDate.of(2020, 1, 1);
+    private static final String[] MONTHS = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct",
+            "Nov", "Dec" };
+    private static final int[] EDGE_YEARS = { 1, 4, 100, 400, 1582, 1600, 1899, 1900, 1969, 1970, 1971, 1999, 2000,
+            2001, 2020, 2038, 2100, 2261, 2400, 9998, 9999 };
+    // Digits of epoch millis, micros and nanos, the years they span are drawn from EPOCH_YEARS
+    private static final int[] EPOCH_LENGTHS = { 13, 16, 19 };
+    private static final int FIRST_EPOCH_YEAR = 1653, EPOCH_YEARS = 2286 - FIRST_EPOCH_YEAR + 1;
+
+    // The reference parsers, an optional time follows every date
+    private static final DateTimeFormatter ISO_DATE = referenceParser(new DateTimeFormatterBuilder()
+            .appendValue(ChronoField.YEAR, 4).appendLiteral('-')
+            .appendValue(ChronoField.MONTH_OF_YEAR, 1, 2, SignStyle.NOT_NEGATIVE).appendLiteral('-')
+            .appendValue(ChronoField.DAY_OF_MONTH, 1, 2, SignStyle.NOT_NEGATIVE), true);
+    private static final DateTimeFormatter DAY_MONTH_YEAR = referenceParser(new DateTimeFormatterBuilder()
+            .appendValue(ChronoField.DAY_OF_MONTH, 1, 2, SignStyle.NOT_NEGATIVE).appendLiteral('/')
+            .appendValue(ChronoField.MONTH_OF_YEAR, 1, 2, SignStyle.NOT_NEGATIVE).appendLiteral('/')
+            .appendValue(ChronoField.YEAR, 4), true);
+    private static final DateTimeFormatter DAY_MONTH_NAME_YEAR = referenceParser(new DateTimeFormatterBuilder()
+            .parseCaseInsensitive().appendValue(ChronoField.DAY_OF_MONTH, 1, 2, SignStyle.NOT_NEGATIVE)
+            .appendLiteral('-').appendText(ChronoField.MONTH_OF_YEAR, TextStyle.SHORT).appendLiteral('-')
+            .appendValue(ChronoField.YEAR, 4), true);
+    private static final DateTimeFormatter TIME_OF_DAY = referenceParser(new DateTimeFormatterBuilder(), false);
+
+    /**
+     * The raw value layouts of the connectors.
+     */
+    enum Shape {
+        /** {@code yyyy-MM-dd HH:mm:ss} with 0, 3 or 6 fractional digits */
+        MYSQL_DATETIME,
+        /** {@code yyyy-MM-dd} */
+        MYSQL_DATE,
+        /** {@code yyyy-MM-dd HH:mm:ss.ffffff} without its trailing zeros */
+        POSTGRES_TIMESTAMP,
+        /** {@code yyyy-MM-dd'T'HH:mm:ss} with 0 to 9 fractional digits */
+        ISO_T,
+        /** {@code yyyy-MM-dd HH:mm:ss.fffffff} */
+        SQL_SERVER_DATETIME2,
+        /** {@code dd-MON-yyyy HH:mm:ss}, in any case */
+        ORACLE_DATE,
+        /** {@code d/M/yyyy} with an optional {@code H:m:s} */
+        DAY_MONTH_YEAR,
+        /** {@code yyyy-M-d H:m:s} */
+        SINGLE_DIGITS,
+        /** {@code H:mm:ss} with 0 to 9 fractional digits */
+        TIME_OF_DAY,
+        /** {@code [-]HH:mm:ss} up to 838 hours with 0 to 6 fractional digits, only in time columns */
+        MYSQL_TIME,
+        EPOCH_DAYS,
+        EPOCH_MILLIS,
+        EPOCH_MICROS,
+        EPOCH_NANOS,
+        /** A {@link LocalDateTime} */
+        TEMPORAL_OBJECT;
+
+        boolean isText() {
+            return ordinal() <= MYSQL_TIME.ordinal();
+        }
+
+        boolean isEpoch() {
+            return this == EPOCH_DAYS || this == EPOCH_MILLIS || this == EPOCH_MICROS || this == EPOCH_NANOS;
+        }
+    }
+
+    /**
+     * The fields a raw value is rendered from, which are shrunk towards simpler values once it is found to differ.
+     */
+    static final class Sample implements Cloneable {
+        Shape shape;
+        int year, month, day, hour, minute, second, nano;
+        int fractionDigits;
+        // Epoch numbers are handed over as Longs or as their text, and month names in one of three cases
+        boolean asText, hasTime, negative;
+        int monthCase;
+
+        /**
+         * @return whether the fields form a valid date and time, which only text values may not, and an epoch number
+         *         has the length of its precision (shorter ones are read as days, the way the converter always did)
+         */
+        boolean isValid() {
+            try {
+                LocalDateTime.of(this.year, this.month, this.day, this.hour, this.minute, this.second, this.nano);
+                if (!this.shape.isEpoch())
+                    return true;
+                long epoch = epoch();
+                return this.shape == Shape.EPOCH_DAYS || ColumnConverter.digitCount(epoch) == EPOCH_LENGTHS[
+                        this.shape.ordinal() - Shape.EPOCH_MILLIS.ordinal()];
+            } catch (DateTimeException | ArithmeticException e) {
+                return false;
+            }
+        }
+
+        Object raw() {
+            switch (this.shape) {
+                case MYSQL_DATETIME:
+                case SQL_SERVER_DATETIME2:
+                    return isoDate() + " " + time(true) + fraction(this.fractionDigits);
+                case MYSQL_DATE:
+                    return isoDate();
+                case POSTGRES_TIMESTAMP:
+                    return isoDate() + " " + time(true) + fraction(6).replaceAll("\\.?0+$", "");
+                case ISO_T:
+                    return isoDate() + "T" + time(true) + fraction(this.fractionDigits);
+                case ORACLE_DATE:
+                    return pad(this.day, 2) + "-" + monthName() + "-" + pad(this.year, 4) + " " + time(true);
+                case DAY_MONTH_YEAR:
+                    return this.day + "/" + this.month + "/" + pad(this.year, 4) + (this.hasTime ? " " + time(false)
+                            : "");
+                case SINGLE_DIGITS:
+                    return pad(this.year, 4) + "-" + this.month + "-" + this.day + " " + time(false);
+                case TIME_OF_DAY:
+                    return this.hour + ":" + pad(this.minute, 2) + ":" + pad(this.second, 2)
+                            + fraction(this.fractionDigits);
+                case MYSQL_TIME:
+                    return (this.negative ? "-" : "") + time(true) + fraction(this.fractionDigits);
+                case TEMPORAL_OBJECT:
+                    return dateTime();
+                default:
+                    long epoch = epoch();
+                    return this.asText ? (Object) String.valueOf(epoch) : (Object) epoch;
+            }
+        }
+
+        private LocalDateTime dateTime() {
+            return LocalDateTime.of(this.year, this.month, this.day, this.hour, this.minute, this.second, this.nano);
+        }
+
+        private long epoch() {
+            LocalDateTime dateTime = dateTime();
+            long seconds = dateTime.toEpochSecond(ZoneOffset.UTC);
+            switch (this.shape) {
+                case EPOCH_DAYS:
+                    return dateTime.toLocalDate().toEpochDay();
+                case EPOCH_MILLIS:
+                    return seconds * 1000 + this.nano / 1_000_000;
+                case EPOCH_MICROS:
+                    return seconds * 1_000_000 + this.nano / 1000;
+                default:
+                    return Math.addExact(Math.multiplyExact(seconds, 1_000_000_000L), this.nano);
+            }
+        }
+
+        private String isoDate() {
+            return pad(this.year, 4) + "-" + pad(this.month, 2) + "-" + pad(this.day, 2);
+        }
+
+        private String time(boolean padded) {
+            return padded ? pad(this.hour, 2) + ":" + pad(this.minute, 2) + ":" + pad(this.second, 2)
+                    : this.hour + ":" + this.minute + ":" + this.second;
+        }
+
+        private String fraction(int digits) {
+            return digits == 0 ? "" : "." + pad(this.nano, 9).substring(0, digits);
+        }
+
+        private String monthName() {
+            String name = this.month >= 1 && this.month <= 12 ? MONTHS[this.month - 1] : "Xyz";
+            return this.monthCase == 0 ? name : this.monthCase == 1 ? name.toUpperCase() : name.toLowerCase();
+        }
+
+        private static String pad(int value, int width) {
+            String text = String.valueOf(value);
+            return text.length() >= width ? text : "0".repeat(width - text.length()) + text;
+        }
+
+        Sample copy() {
+            try {
+                return (Sample) clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * A configured column type and output mode, with the reference pattern its values are rendered with.
+     */
+    private static final class Target {
+        final String columnType;
+        final TemporalKind kind;
+        final OutputMode output;
+        final TimestampConverter tsConverter;
+        // null for the numeric output modes
+        final DateTimeFormatter reference;
+        // What follows the hours of elapsed times in time columns, null for the other columns
+        final DateTimeFormatter elapsedReference;
+
+        Target(String columnType, String outputMode, String format, String referencePattern) {
+            this.columnType = columnType;
+            this.kind = TypeHandlers.lookup(columnType).kind(java.sql.Types.OTHER);
+            this.output = OutputMode.of(outputMode);
+            this.tsConverter = new TimestampConverter();
+            Properties props = new Properties();
+            props.put("output.mode", outputMode);
+            if (format != null)
+                props.put("format." + (this.kind == TemporalKind.DATETIME ? "datetime" : columnType), format);
+            this.tsConverter.configure(props);
+            this.reference = referencePattern == null ? null
+                    : DateTimeFormatter.ofPattern(referencePattern, Locale.getDefault(Locale.Category.FORMAT));
+            this.elapsedReference = this.kind != TemporalKind.TIME || referencePattern == null ? null
+                    : DateTimeFormatter.ofPattern(referencePattern.substring(2));
+        }
+
+        ColumnConverter newColumn(String name) {
+            return this.tsConverter.columnConverter("fuzz", name, this.columnType);
+        }
+    }
+
+    /**
+     * A value the converter and the reference disagree on.
+     */
+    private static final class Difference {
+        final Object raw;
+        final Object original;
+        final Object converted;
+        final Object expected;
+
+        Difference(Object raw, Object original, Object converted, Object expected) {
+            this.raw = raw;
+            this.original = original;
+            this.converted = converted;
+            this.expected = expected;
+        }
+
+        @Override
+        public String toString() {
+            return describe(this.raw) + " -> " + describe(this.converted) + ", expected " + describe(this.expected)
+                    + (this.original.equals(this.raw) ? "" : " (shrunk from " + describe(this.original) + ")");
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "datetime, string, , yyyy-MM-dd'T'HH:mm:ss.SSS'Z'",
+            "datetime, string, yyyy-MM-dd HH:mm:ss.ffffff, yyyy-MM-dd HH:mm:ss.SSSSSS",
+            "datetime, string, dd/MM/yyyy hh:mm:ss a, dd/MM/yyyy hh:mm:ss a",
+            "datetime, string, 'EEE, d MMM yyyy HH:mm', 'EEE, d MMM yyyy HH:mm'", "date, string, , YYYY-MM-dd",
+            "date, string, dd.MM.yyyy, dd.MM.yyyy", "time, string, , HH:mm:ss.SSS",
+            "time, string, HH:mm:ss.fffffffff, HH:mm:ss.SSSSSSSSS", "datetime, millis, , ", "date, millis, , ",
+            "time, millis, , ", "datetime, micros, , ", "time, micros, , " })
+    void differentialTest(final String columnType, final String outputMode, final String format,
+            final String referencePattern) {
+        Target target = new Target(columnType, outputMode, format, referencePattern);
+        Collection<Difference> differences = new ConcurrentLinkedQueue<>();
+        LongAdder differing = new LongAdder();
+
+        int chunks = (VALUES + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            SplittableRandom random = new SplittableRandom(SEED + chunk);
+            // One column per shape learns it, the mixed one keeps changing its shape
+            Map<Shape, ColumnConverter> learned = new TreeMap<>();
+            ColumnConverter mixed = target.newColumn("mixed");
+            for (int i = chunk * CHUNK_SIZE; i < Math.min(VALUES, (chunk + 1) * CHUNK_SIZE); i++) {
+                Sample sample = generate(random, target.kind == TemporalKind.TIME);
+                Object raw = sample.raw();
+                Object expected = reference(target, raw);
+                Object converted = convert(learned.computeIfAbsent(sample.shape,
+                        shape -> target.newColumn(shape.name())), raw);
+                if (Objects.equals(converted, expected))
+                    converted = convert(mixed, raw);
+                if (Objects.equals(converted, expected))
+                    continue;
+
+                differing.increment();
+                if (differences.size() < REPORTED_FAILURES * 10)
+                    differences.add(shrink(target, sample));
+            }
+        });
+
+        if (differing.sum() == 0)
+            return;
+        // The simplest inputs first, each reported once
+        Map<String, Difference> minimal = new TreeMap<>((a, b) -> a.length() != b.length()
+                ? Integer.compare(a.length(), b.length()) : a.compareTo(b));
+        for (Difference difference : differences)
+            minimal.putIfAbsent(describe(difference.raw), difference);
+        List<String> report = new ArrayList<>();
+        minimal.values().stream().limit(REPORTED_FAILURES).forEach(difference -> report.add(difference.toString()));
+        fail(String.format("%d of %d %s %s values differ from the reference (fuzz.seed=%d), minimal inputs:%n  %s",
+                differing.sum(), VALUES, columnType, outputMode, SEED, String.join("\n  ", report)));
+    }
+
+    private static Sample generate(SplittableRandom random, boolean isTime) {
+        Sample sample = new Sample();
+        Shape[] shapes = Shape.values();
+        do
+            sample.shape = shapes[random.nextInt(shapes.length)];
+        while (sample.shape == Shape.MYSQL_TIME && !isTime);
+        sample.year = random.nextInt(10) < 3 ? EDGE_YEARS[random.nextInt(EDGE_YEARS.length)]
+                : 1 + random.nextInt(9999);
+        sample.month = 1 + random.nextInt(12);
+        int lengthOfMonth = LocalDate.of(sample.year, sample.month, 1).lengthOfMonth();
+        int edge = random.nextInt(10);
+        sample.day = edge == 0 ? 1 : edge == 1 ? lengthOfMonth : 1 + random.nextInt(lengthOfMonth);
+        if (edge == 2 && (sample.year & 3) == 0) {
+            // Leap days, valid or not
+            sample.month = 2;
+            sample.day = 29;
+        }
+        sample.hour = random.nextInt(24);
+        sample.minute = random.nextInt(60);
+        sample.second = random.nextInt(60);
+        sample.nano = random.nextInt(5) == 0 ? 0 : random.nextInt(1_000_000_000);
+        switch (sample.shape) {
+            case MYSQL_DATETIME:
+                sample.fractionDigits = 3 * random.nextInt(3);
+                break;
+            case SQL_SERVER_DATETIME2:
+                sample.fractionDigits = 7;
+                break;
+            case MYSQL_TIME:
+                sample.hour = random.nextInt(839);
+                sample.fractionDigits = random.nextInt(7);
+                break;
+            default:
+                sample.fractionDigits = random.nextInt(10);
+        }
+        sample.asText = random.nextBoolean();
+        sample.hasTime = random.nextBoolean();
+        sample.monthCase = random.nextInt(3);
+        sample.negative = random.nextInt(4) == 0;
+
+        if (sample.shape.isText() && random.nextInt(30) == 0) {
+            // Invalid dates, from MySQL's zero date to days past the end of the month
+            switch (random.nextInt(3)) {
+                case 0:
+                    sample.year = sample.month = sample.day = sample.hour = sample.minute = sample.second = 0;
+                    sample.nano = 0;
+                    break;
+                case 1:
+                    sample.day = lengthOfMonth + 1;
+                    break;
+                default:
+                    sample.month = 13;
+            }
+        }
+        if (!sample.shape.isText()) {
+            if (!sample.isValid())
+                sample.day = Math.min(sample.day, 28);
+            while (!sample.isValid())
+                sample.year = FIRST_EPOCH_YEAR + random.nextInt(EPOCH_YEARS);
+        }
+        return sample;
+    }
+
+    /**
+     * Simplifies the fields of a differing sample one at a time, keeping every simplification that still differs.
+     */
+    private static Difference shrink(Target target, Sample sample) {
+        Object original = sample.raw();
+        Sample current = sample;
+        boolean shrunk = true;
+        while (shrunk) {
+            shrunk = false;
+            for (int step = 0; step < 13; step++) {
+                Sample candidate = current.copy();
+                switch (step) {
+                    case 0:
+                        candidate.year = 1970;
+                        break;
+                    case 1:
+                        // 1970 is the simplest year, once there it stays
+                        candidate.year = current.year == 1970 ? 1970 : 2000;
+                        break;
+                    case 2:
+                        candidate.month = 1;
+                        break;
+                    case 3:
+                        candidate.day = 1;
+                        break;
+                    case 4:
+                        candidate.hour = 0;
+                        break;
+                    case 5:
+                        candidate.minute = 0;
+                        break;
+                    case 6:
+                        candidate.second = 0;
+                        break;
+                    case 7:
+                        candidate.nano = 0;
+                        break;
+                    case 8:
+                        candidate.fractionDigits = candidate.shape == Shape.SQL_SERVER_DATETIME2 ? 7 : 0;
+                        break;
+                    case 9:
+                        candidate.hasTime = false;
+                        break;
+                    case 10:
+                        candidate.asText = false;
+                        break;
+                    case 11:
+                        candidate.negative = false;
+                        break;
+                    default:
+                        candidate.monthCase = 0;
+                }
+                if (!candidate.shape.isText() && !candidate.isValid())
+                    continue;
+                Object raw = candidate.raw();
+                if (raw.equals(current.raw()))
+                    continue;
+                if (!Objects.equals(convert(target.newColumn("shrink"), raw), reference(target, raw))) {
+                    current = candidate;
+                    shrunk = true;
+                }
+            }
+        }
+        Object raw = current.raw();
+        return new Difference(raw, original, convert(target.newColumn("shrink"), raw), reference(target, raw));
+    }
+
+    /**
+     * Converts a value twice, so a fresh column takes both the general path and the path of the shape it learned.
+     */
+    private static Object convert(ColumnConverter column, Object raw) {
+        Object first = convertOnce(column, raw);
+        Object second = convertOnce(column, raw);
+        return Objects.equals(first, second) ? first : first + " then " + second;
+    }
+
+    private static Object convertOnce(ColumnConverter column, Object raw) {
+        try {
+            return column.convert(raw);
+        } catch (DateTimeException e) {
+            return FAILED;
+        } catch (RuntimeException e) {
+            return e.toString();
+        }
+    }
+
+    /**
+     * @return what the value should convert to, or {@link #FAILED}
+     */
+    private static Object reference(Target target, Object raw) {
+        Object read = referenceRead(raw, target.kind == TemporalKind.TIME);
+        if (read == null)
+            return FAILED;
+        if (read instanceof Duration) {
+            Duration duration = (Duration) read;
+            if (target.elapsedReference != null)
+                return referenceElapsed(duration, target.elapsedReference);
+            // The numeric outputs keep the time of the day
+            read = EPOCH.plusSeconds(Math.floorMod(duration.getSeconds(), EpochTime.SECONDS_PER_DAY))
+                    .plusNanos(duration.getNano());
+        }
+        LocalDateTime dateTime = (LocalDateTime) read;
+
+        // java.time signs the years past 9999 of 4 letter year fields, such as the week based year of 9999-12-31,
+        // SimpleDateFormat patterns never do
+        if (target.reference != null)
+            return UNSIGNED_YEAR.matcher(target.reference.format(dateTime)).replaceAll("$1");
+        long epochSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        long nanoOfDay = dateTime.toLocalTime().toNanoOfDay();
+        switch (target.kind) {
+            case DATE:
+                return (int) dateTime.toLocalDate().toEpochDay();
+            case TIME:
+                return target.output == OutputMode.MILLIS ? (Object) (int) (nanoOfDay / 1_000_000)
+                        : (Object) (nanoOfDay / 1000);
+            default:
+                return target.output == OutputMode.MILLIS ? epochSecond * 1000 + dateTime.getNano() / 1_000_000
+                        : epochSecond * 1_000_000 + dateTime.getNano() / 1000;
+        }
+    }
+
+    /**
+     * The total hours, with at least 2 digits, then the rest of the pattern applied to the minutes and seconds.
+     */
+    private static String referenceElapsed(Duration duration, DateTimeFormatter rest) {
+        Duration magnitude = duration.abs();
+        String hours = String.valueOf(magnitude.toHours());
+        return (duration.isNegative() ? "-" : "") + (hours.length() < 2 ? "0" + hours : hours)
+                + rest.format(LocalTime.of(0, magnitude.toMinutesPart(), magnitude.toSecondsPart(),
+                        magnitude.toNanosPart()));
+    }
+
+    /**
+     * @return the UTC wall clock of a raw value, or the {@link Duration} of an elapsed time in a time column, or
+     *         {@code null} if it is invalid
+     */
+    private static Object referenceRead(Object raw, boolean isTime) {
+        if (raw instanceof LocalDateTime)
+            return (LocalDateTime) raw;
+        if (raw instanceof Long)
+            return referenceNumber((Long) raw, String.valueOf(Math.abs((Long) raw)).length(), isTime);
+
+        String text = (String) raw;
+        // Like the converter always did, anything without a date or time separator is a number, even 19/4/2019
+        if (text.indexOf(':') < 0 && text.indexOf('-') < 0) {
+            try {
+                return referenceNumber(Long.parseLong(text), text.length(), isTime);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        Matcher elapsed = ELAPSED.matcher(text);
+        if (isTime && elapsed.matches()) {
+            String fraction = elapsed.group(5) == null ? "0" : elapsed.group(5);
+            Duration duration = Duration.ofHours(Long.parseLong(elapsed.group(2)))
+                    .plusMinutes(Long.parseLong(elapsed.group(3))).plusSeconds(Long.parseLong(elapsed.group(4)))
+                    .plusNanos(Long.parseLong((fraction + "00000000").substring(0, 9)));
+            return elapsed.group(1).isEmpty() ? duration : duration.negated();
+        }
+        for (DateTimeFormatter parser : List.of(ISO_DATE, DAY_MONTH_YEAR, DAY_MONTH_NAME_YEAR, TIME_OF_DAY)) {
+            try {
+                TemporalAccessor parsed = parser.parse(text);
+                LocalDate date = parsed.isSupported(ChronoField.EPOCH_DAY) ? LocalDate.from(parsed) : DEFAULT_DATE;
+                return parsed.isSupported(ChronoField.NANO_OF_DAY)
+                        ? date.atTime(java.time.LocalTime.ofNanoOfDay(parsed.getLong(ChronoField.NANO_OF_DAY)))
+                        : date.atStartOfDay();
+            } catch (DateTimeException e) {
+                // Try the next layout
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Numbers shorter than epoch millis are epoch days, longer ones epoch values with a digit more precision per
+     * extra digit. Numbers in time columns are elapsed milliseconds.
+     */
+    private static Object referenceNumber(long value, int length, boolean isTime) {
+        if (isTime)
+            return Duration.ofMillis(value);
+        if (length < TimestampConverter.MILLIS_LENGTH)
+            return LocalDate.ofEpochDay(value).atStartOfDay();
+        BigDecimal seconds = BigDecimal.valueOf(value).movePointLeft(length - 10);
+        BigDecimal wholeSeconds = seconds.setScale(0, java.math.RoundingMode.FLOOR);
+        return LocalDateTime.ofEpochSecond(wholeSeconds.longValueExact(),
+                seconds.subtract(wholeSeconds).movePointRight(9).intValue(), ZoneOffset.UTC);
+    }
+
+    private static DateTimeFormatter referenceParser(DateTimeFormatterBuilder date, boolean hasDate) {
+        if (hasDate)
+            date.optionalStart().appendLiteral(' ').optionalEnd().optionalStart().appendLiteral('T').optionalEnd()
+                    .optionalStart();
+        date.appendValue(ChronoField.HOUR_OF_DAY, 1, 2, SignStyle.NOT_NEGATIVE).appendLiteral(':')
+                .appendValue(ChronoField.MINUTE_OF_HOUR, 1, 2, SignStyle.NOT_NEGATIVE).appendLiteral(':')
+                .appendValue(ChronoField.SECOND_OF_MINUTE, 1, 2, SignStyle.NOT_NEGATIVE)
+                .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true);
+        if (hasDate)
+            date.optionalEnd();
+        return date.toFormatter(Locale.ENGLISH).withResolverStyle(ResolverStyle.STRICT)
+                .withChronology(java.time.chrono.IsoChronology.INSTANCE);
+    }
+
+    private static String describe(Object value) {
+        return value instanceof String ? "'" + value + "'"
+                : value == null ? "null" : value + " (" + value.getClass().getSimpleName() + ")";
+    }
+}
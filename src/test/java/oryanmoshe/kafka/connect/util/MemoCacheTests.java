@@ -0,0 +1,48 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class MemoCacheTests {
+
+    @Test
+    void admissionTest() {
+        MemoCache cache = new MemoCache(8);
+        String sentinel = "0000-00-00 00:00:00";
+
+        assertNull(cache.get(sentinel));
+        cache.offer(sentinel, "first");
+        assertNull(cache.get(sentinel), "a value should only be admitted when it misses twice");
+        cache.offer(sentinel, "second");
+        assertEquals("second", cache.get(sentinel));
+        assertEquals("second", cache.get(new String(sentinel)));
+
+        CacheStatistics statistics = cache.statistics();
+        assertEquals(2, statistics.hits());
+        assertEquals(2, statistics.misses());
+        assertEquals(0, statistics.evictions());
+        assertEquals(8, statistics.capacity());
+    }
+
+    @Test
+    void highCardinalityTest() {
+        MemoCache cache = new MemoCache(64);
+        Object output = new Object();
+        for (int i = 0; i < 2; i++) {
+            cache.get("9999-12-31");
+            cache.offer("9999-12-31", output);
+        }
+
+        // Distinct values pass through without evicting the repeated one
+        for (long millis = 1587042000279L; millis < 1587042000279L + 100_000; millis++) {
+            Long key = millis;
+            if (cache.get(key) == null)
+                cache.offer(key, "value");
+        }
+        assertSame(output, cache.get("9999-12-31"));
+        assertEquals(0, cache.statistics().evictions());
+    }
+}
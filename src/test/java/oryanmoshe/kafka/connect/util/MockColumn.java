@@ -0,0 +1,95 @@
+package oryanmoshe.kafka.connect.util;
+
+import io.debezium.spi.converter.RelationalColumn;
+
+import java.util.OptionalInt;
+
+/**
+ * Configurable {@link RelationalColumn} for tests that need more than the fixed columns of
+ * {@link TimestampConverterTests}.
+ */
+class MockColumn implements RelationalColumn {
+    private final String dataCollection, name, typeName;
+    private final boolean optional, hasDefaultValue;
+    private final Object defaultValue;
+    private final int jdbcType;
+
+    MockColumn(String dataCollection, String name, String typeName) {
+        this(dataCollection, name, typeName, true, false, null);
+    }
+
+    MockColumn(String dataCollection, String name, String typeName, int jdbcType) {
+        this(dataCollection, name, typeName, true, false, null, jdbcType);
+    }
+
+    MockColumn(String dataCollection, String name, String typeName, boolean optional, boolean hasDefaultValue,
+            Object defaultValue) {
+        this(dataCollection, name, typeName, optional, hasDefaultValue, defaultValue, 0);
+    }
+
+    private MockColumn(String dataCollection, String name, String typeName, boolean optional, boolean hasDefaultValue,
+            Object defaultValue, int jdbcType) {
+        this.dataCollection = dataCollection;
+        this.name = name;
+        this.typeName = typeName;
+        this.optional = optional;
+        this.hasDefaultValue = hasDefaultValue;
+        this.defaultValue = defaultValue;
+        this.jdbcType = jdbcType;
+    }
+
+    @Override
+    public String typeName() {
+        return this.typeName;
+    }
+
+    @Override
+    public String name() {
+        return this.name;
+    }
+
+    @Override
+    public String dataCollection() {
+        return this.dataCollection;
+    }
+
+    @Override
+    public String typeExpression() {
+        return this.typeName;
+    }
+
+    @Override
+    public OptionalInt scale() {
+        return OptionalInt.empty();
+    }
+
+    @Override
+    public int nativeType() {
+        return 0;
+    }
+
+    @Override
+    public OptionalInt length() {
+        return OptionalInt.empty();
+    }
+
+    @Override
+    public int jdbcType() {
+        return this.jdbcType;
+    }
+
+    @Override
+    public boolean isOptional() {
+        return this.optional;
+    }
+
+    @Override
+    public boolean hasDefaultValue() {
+        return this.hasDefaultValue;
+    }
+
+    @Override
+    public Object defaultValue() {
+        return this.defaultValue;
+    }
+}
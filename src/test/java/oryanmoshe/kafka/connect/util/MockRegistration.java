@@ -0,0 +1,15 @@
+package oryanmoshe.kafka.connect.util;
+
+import io.debezium.spi.converter.CustomConverter.Converter;
+import io.debezium.spi.converter.CustomConverter.ConverterRegistration;
+
+class MockRegistration<S> implements ConverterRegistration<S> {
+    public Converter _converter;
+    public S _schema;
+
+    @Override
+    public void register(S fieldSchema, Converter converter) {
+        _converter = converter;
+        _schema = fieldSchema;
+    }
+}
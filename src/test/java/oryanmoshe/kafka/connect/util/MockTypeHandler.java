@@ -0,0 +1,38 @@
+package oryanmoshe.kafka.connect.util;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * {@link TypeHandler} registered through {@code META-INF/services} for the registry tests: epoch seconds in a
+ * {@code UNIXTIME} column, a type nothing else handles.
+ */
+public class MockTypeHandler extends TypeHandler {
+
+    @Override
+    public Set<String> typeNames() {
+        return Set.of("unixtime");
+    }
+
+    @Override
+    public TemporalKind kind(int jdbcType) {
+        return TemporalKind.DATETIME;
+    }
+
+    @Override
+    public Object normalize(Object rawValue) {
+        return rawValue instanceof Number ? Instant.ofEpochSecond(((Number) rawValue).longValue()) : rawValue;
+    }
+
+    /**
+     * A replacement of the built-in {@code smalldatetime} handler, only listed in the services of the
+     * {@code replacing-type-handler} test resources so the rest of the tests keep the built-in one.
+     */
+    public static class Replacement extends MockTypeHandler {
+
+        @Override
+        public Set<String> typeNames() {
+            return Set.of("smalldatetime");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReplayToolTests {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = { "datetime,2019-04-19 15:13:20|datetime|2019-04-19 15:13:20",
+            "date,\"19-Apr-2019, \"\"quoted\"\"\"|date|19-Apr-2019, \"quoted\"", "time,|time|",
+            "datetime,\"\"|datetime|''",
+            "{\"type\": \"datetime\", \"value\": \"2019-04-19\\t15:13:20\"}|datetime|2019-04-19\t15:13:20",
+            "{\"typeName\":\"date\",\"rawValue\":18368}|date|18368", "{\"value\": null, \"type\": \"time\"}|time|" })
+    void captureReaderTest(final String line, final String expectedType, final String expectedValue)
+            throws IOException {
+        CaptureReader.Format format = line.startsWith("{") ? CaptureReader.Format.NDJSON : CaptureReader.Format.CSV;
+        CaptureReader reader = new CaptureReader(new BufferedReader(new StringReader(line)), format);
+
+        assertTrue(reader.next(), line);
+        assertEquals(expectedType, reader.typeName);
+        assertEquals(expectedValue, reader.rawValue == null ? null : reader.rawValue.toString());
+        if (line.contains("18368"))
+            assertEquals(18368L, reader.rawValue, "integral JSON numbers should be replayed as longs");
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void unreadableLinesTest() throws IOException {
+        String capture = "typeName,rawValue\n\ndatetime,\"unterminated\nnocomma\ndate,2019-04-19\n";
+        CaptureReader reader = new CaptureReader(new BufferedReader(new StringReader(capture)),
+                CaptureReader.Format.CSV);
+        assertTrue(reader.next());
+        assertEquals("2019-04-19", reader.rawValue);
+        assertFalse(reader.next());
+        assertEquals(2, reader.unreadableLines(), "the header and blank lines should not count");
+
+        reader = new CaptureReader(new BufferedReader(new StringReader("{\"type\": \"date\"}\n[1]\n{\"type\": 1,")),
+                CaptureReader.Format.NDJSON);
+        assertFalse(reader.next());
+        assertEquals(3, reader.unreadableLines());
+    }
+
+    @Test
+    void replayTest() throws IOException {
+        StringBuilder capture = new StringBuilder();
+        for (int i = 0; i < ReplayTool.BATCH_SIZE + 10; i++)
+            capture.append("datetime,2019-04-19 15:13:").append(i % 60 < 10 ? "0" : "").append(i % 60).append('\n');
+        capture.append("datetime,0000-00-00 00:00:00\ndatetime,\ndatetime, \ndate,18368\nnumeric,12.5\n");
+
+        Properties config = new Properties();
+        config.put("on.failure", "null");
+        Properties diffConfig = new Properties();
+        diffConfig.put("on.failure", "passthrough");
+        diffConfig.put("format.date", "dd/MM/yyyy");
+        ReplayTool tool = new ReplayTool(config, diffConfig, 10);
+        tool.replay(new CaptureReader(new BufferedReader(new StringReader(capture.toString())),
+                CaptureReader.Format.CSV));
+
+        ReplayTool.TypeReport datetime = tool.report("datetime");
+        assertEquals(ReplayTool.BATCH_SIZE + 13, datetime.values);
+        assertEquals(ReplayTool.BATCH_SIZE + 10, datetime.converted);
+        assertEquals(2, datetime.nulls);
+        assertEquals(1, datetime.unchanged);
+        // The 60 seconds, null and the blank value
+        assertEquals(62, datetime.outputs.size());
+        assertEquals(1, tool.report("date").converted);
+        assertNull(tool.report("numeric").converter, "unsupported types should only be counted");
+        assertEquals(1, tool.report("numeric").values);
+        // The sentinel passes through, the date is formatted differently
+        assertEquals(1, datetime.differences);
+        assertEquals(2, tool.differences());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tool.report(new PrintStream(out, true, StandardCharsets.UTF_8), 3);
+        String report = out.toString(StandardCharsets.UTF_8);
+        assertTrue(report.contains("parse failures {INVALID_FIELDS=1}"), report);
+        assertTrue(report.contains("(unsupported type)"), report);
+        assertTrue(report.contains("datetime \"0000-00-00 00:00:00\": null -> \"0000-00-00 00:00:00\""), report);
+    }
+}
@@ -0,0 +1,47 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RuleIndexTests {
+
+    @ParameterizedTest
+    @CsvSource({ "*, anything, true", "*, '', true", "created_*, created_at, true", "created_*, updated_at, false",
+            "*_at, created_at, true", "*_at, created_on, false", "c?eated, created, true", "c?eated, cated, false",
+            "*a*b*, xxaxxbxx, true", "*a*b, xxbxxa, false", "orders, orders, true", "orders, orders2, false" })
+    void matchesTest(final String wildcard, final String segment, final boolean expected) {
+        assertEquals(expected, RuleIndex.matches(wildcard, segment), wildcard + " ~ " + segment);
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "inventory.orders.created_at, 1", "inventory.orders.updated_at, 2", "Inventory.ORDERS.shipped, 2",
+            "inventory.customers.created_at, 3", "billing.invoices.issued_at, 4", "billing.invoices.due, ",
+            "inventory.orders, ", "db.dbo.orders.created_at, " })
+    void lookupTest(final String path, final Integer expected) {
+        RuleIndex<Integer> index = new RuleIndex<>();
+        index.add("inventory.*.created_*", 3, 3);
+        index.add("inventory.orders.created_at", 1, 1);
+        index.add("inventory.orders.*", 2, 2);
+        index.add("*.*.*_at", 4, 4);
+
+        assertEquals(expected, index.lookup(path), path);
+    }
+
+    @Test
+    void manyRulesTest() {
+        RuleIndex<Integer> index = new RuleIndex<>();
+        for (int i = 0; i < 20_000; i++)
+            index.add("db.table_" + i + ".column_" + i, i, i);
+        index.add("db.*.column_*", 100_000, -1);
+
+        assertEquals(20_001, index.size());
+        assertEquals(12_345, index.lookup("db.table_12345.column_12345"));
+        assertEquals(-1, index.lookup("db.table_12345.column_1"));
+        assertNull(index.lookup("db.table_12345.other"));
+        assertNull(new RuleIndex<Integer>().lookup("db.table.column"));
+    }
+}
@@ -0,0 +1,154 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TemporalFormatterTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = { TimestampConverter.DEFAULT_DATETIME_FORMAT, TimestampConverter.DEFAULT_DATE_FORMAT,
+            TimestampConverter.DEFAULT_TIME_FORMAT, "YY-MM-dd", "mm:ss.SSS", "yyyy-MM-dd HH:mm:ss.S",
+            "yy/M/d h:m:s a", "EEE, d MMM yyyy HH:mm:ss Z", "EEEE MMMM dd yyy G", "D w W F u k K",
+            "yyyy-MM-dd'T'HH:mm:ssXXX", "ddd-SS '' 'it''s'", "YYYYY-LLLL-DDD EEEE hh:mm:ss a z",
+            "HH:mm:ss yyyy-MM-dd" })
+    void simpleDateFormatCompatibilityTest(final String pattern) {
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(pattern);
+        simpleDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        TemporalFormatter formatter = TemporalFormatter.ofPattern(pattern);
+
+        Random random = new Random(pattern.hashCode());
+        for (int i = 0; i < 10_000; i++) {
+            // SimpleDateFormat switches to the Julian calendar before 1582, so stay in the Gregorian range
+            long millis = (long) (random.nextDouble() * 253402300799999L);
+            assertEquals(simpleDateFormat.format(new Date(millis)), formatter.format(millis),
+                    pattern + " at " + millis);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { TimestampConverter.DEFAULT_DATETIME_FORMAT, TimestampConverter.DEFAULT_DATE_FORMAT,
+            TimestampConverter.DEFAULT_TIME_FORMAT, "yyyy-MM-dd HH:mm:ss.S", "EEE, d MMM yyyy HH:mm:ss Z",
+            "yyyy-MM-dd'T'HH:mm:ssXXX", "yyyy-MM-dd hh:mm a", "HH:mm yyyy" })
+    void dayCacheTest(final String pattern) {
+        TemporalFormatter uncached = TemporalFormatter.ofPattern(pattern);
+        TemporalFormatter cached = TemporalFormatter.ofPattern(pattern, 16);
+
+        Random random = new Random(pattern.hashCode());
+        for (int i = 0; i < 10_000; i++) {
+            // Mostly a narrow band of days, with some values far outside of it
+            long millis = i % 10 == 0 ? (long) ((random.nextDouble() - 0.5) * 253402300799999L)
+                    : 1587042000279L + (long) (random.nextDouble() * 20 * 86400000L);
+            assertEquals(uncached.format(millis), cached.format(millis), pattern + " at " + millis);
+        }
+    }
+
+    @Test
+    void dayCacheStatisticsTest() {
+        TemporalFormatter formatter = TemporalFormatter.ofPattern(TimestampConverter.DEFAULT_DATETIME_FORMAT, 4);
+        assertEquals(4, formatter.cacheStatistics().capacity());
+
+        formatter.format(1587042000279L);
+        formatter.format(1587042000279L + 1000);
+        formatter.format(1587042000279L + 86400000L);
+        formatter.format(1587042000279L + 4 * 86400000L);
+
+        CacheStatistics statistics = formatter.cacheStatistics();
+        assertEquals(1, statistics.hits());
+        assertEquals(3, statistics.misses());
+        assertEquals(1, statistics.evictions());
+
+        assertEquals(CacheStatistics.DISABLED, TemporalFormatter.ofPattern("yyyy-MM-dd HH:mm w", 4).cacheStatistics());
+        assertEquals(CacheStatistics.DISABLED, TemporalFormatter.ofPattern("HH:mm yyyy", 4).cacheStatistics());
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "yyyy-MM-dd'T'HH:mm:ss.SSS'Z', true", "YYYY-MM-dd, true", "HH:mm:ss.SSS, true",
+            "'EEE, d MMM yy hh:mm a Z', true", "HH:mm yyyy, true", "yyyy-MM-dd G, false", "yyyy 'week' w, false",
+            "yyyy-MM-dd F, false" })
+    void compiledTest(final String pattern, final boolean compiled) {
+        assertEquals(compiled, TemporalFormatter.ofPattern(pattern).isCompiled(), pattern);
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "HH:mm:ss.SSS, 54800, 345000000, 15:13:20.345", "HH:mm:ss, 86400, 0, 24:00:00",
+            "HH:mm:ss, 3020399, 0, 838:59:59", "HH:mm:ss, -3020399, 0, -838:59:59",
+            "HH:mm:ss.fff, -1, 999999999, -00:00:00.000", "HH:mm:ss.ffffff, -2, 500000000, -00:00:01.500000",
+            "'T'H'h'mm, -45000, 0, T-12h30", "mm:ss, 3599, 0, 59:59", "H:m:s.S, 3661, 5000000, 1:1:1.5",
+            "HH:mm:ss, 9223372036854775807, 0, 2562047788015215:30:07" })
+    void timePrinterTest(final String pattern, final long seconds, final int nanos, final String expected) {
+        assertEquals(expected, TemporalFormatter.ofPattern(pattern).timePrinter().print(seconds, nanos), pattern);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "yyyy-MM-dd HH:mm:ss", "hh:mm:ss a", "HH:mm:ss Z", "'at' kk:mm", "'noon'" })
+    void timePrinterUnsupportedTest(final String pattern) {
+        assertNull(TemporalFormatter.ofPattern(pattern).timePrinter(), pattern);
+    }
+
+    @Test
+    void illegalPatternTest() {
+        assertThrows(IllegalArgumentException.class, () -> TemporalFormatter.ofPattern("yyyy-MM-dd qq"));
+        assertThrows(IllegalArgumentException.class, () -> TemporalFormatter.ofPattern("yyyy-MM-dd 'T"));
+        assertThrows(IllegalArgumentException.class, () -> TemporalFormatter.ofPattern("HH:mm:ss.ffffffffff"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "yyyy-MM-dd'T'HH:mm:ss.fff'Z', uuuu-MM-dd'T'HH:mm:ss.SSS'Z'",
+            "yyyy-MM-dd'T'HH:mm:ss.ffffff'Z', uuuu-MM-dd'T'HH:mm:ss.SSSSSS'Z'",
+            "yyyy-MM-dd HH:mm:ss.fffffff, uuuu-MM-dd HH:mm:ss.SSSSSSS", "HH:mm:ss.fffffffff, HH:mm:ss.SSSSSSSSS",
+            "ss.f, ss.S" })
+    void fractionTest(final String pattern, final String isoPattern) {
+        TemporalFormatter compiled = TemporalFormatter.ofPattern(pattern, 16);
+        DateTimeFormatter reference = DateTimeFormatter.ofPattern(isoPattern).withZone(ZoneOffset.UTC);
+        assertTrue(compiled.isCompiled(), pattern);
+
+        Random random = new Random(pattern.hashCode());
+        for (int i = 0; i < 10_000; i++) {
+            long epochSecond = 1587042000L + (long) ((random.nextDouble() - 0.1) * 40 * 86400L);
+            int nano = random.nextInt(1_000_000_000);
+            assertEquals(reference.format(Instant.ofEpochSecond(epochSecond, nano)),
+                    compiled.format(epochSecond, nano), pattern + " at " + epochSecond + "." + nano);
+        }
+        // The general formatter prints the same fractions
+        TemporalFormatter general = TemporalFormatter.ofPattern(pattern + " G");
+        assertEquals(reference.format(Instant.ofEpochSecond(1587042000L, 1230)) + " AD",
+                general.format(1587042000L, 1230));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "yyyy-MM-dd HH:mm:ss.SSS, America/New_York", "yyyy-MM-dd'T'HH:mm:ssZ, Europe/Berlin",
+            "yyyy-MM-dd'T'HH:mm:ss.fffXXX, Australia/Lord_Howe", "yyyy-MM-dd HH:mmXX, Asia/Kolkata",
+            "yyyy-MM-dd hh:mm aX, America/St_Johns", "'EEE, d MMM yyyy HH:mm:ss z', Etc/GMT-5",
+            "'EEE, d MMM yyyy HH:mm:ss z', Europe/Berlin" })
+    void zoneTest(final String pattern, final String id) {
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(pattern.replace('f', 'S'));
+        simpleDateFormat.setTimeZone(TimeZone.getTimeZone(ZoneId.of(id)));
+        TemporalFormatter formatter = TemporalFormatter.ofPattern(pattern, 16, ZoneId.of(id));
+        // Zone names change with DST, so only fixed offset zones can print them from the compiled printer
+        assertEquals(!pattern.endsWith("z") || id.startsWith("Etc/"), formatter.isCompiled(), pattern);
+
+        Random random = new Random(pattern.hashCode());
+        for (int i = 0; i < 10_000; i++) {
+            long millis = i % 10 == 0 ? (long) (random.nextDouble() * 253402300799999L)
+                    : 1500000000000L + (long) (random.nextDouble() * 5 * 365 * 86400000L);
+            assertEquals(simpleDateFormat.format(new Date(millis)), formatter.format(millis),
+                    pattern + " in " + id + " at " + millis);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TemporalParserTests {
+
+    @ParameterizedTest
+    @CsvSource({ "2019-04-19, 2019-04-19T00:00:00.000Z", "2019-4-9, 2019-04-09T00:00:00.000Z",
+            "2019-04-19 15:13:20, 2019-04-19T15:13:20.000Z", "2019-04-19T15:13:20.345, 2019-04-19T15:13:20.345Z",
+            "2019-04-19 15:13:20.3451237, 2019-04-19T15:13:20.345Z", "2019-04-19 15:13:20.3, 2019-04-19T15:13:20.300Z",
+            "2019-4-19 3:1:0.345123, 2019-04-19T03:01:00.345Z", "19/04/2019 15:13:20.345123, 2019-04-19T15:13:20.345Z",
+            "1/4/2019, 2019-04-01T00:00:00.000Z", "19-Apr-2019 15:13:20.345123, 2019-04-19T15:13:20.345Z",
+            "9-DEC-1970, 1970-12-09T00:00:00.000Z", "15:13:20, 2020-01-01T15:13:20.000Z",
+            "15:13:2012, 2020-01-01T15:13:20.120Z", "2019-04-19 15:13:20+02:00, 2019-04-19T15:13:20.000Z",
+            "2020-02-29T24:00:00, 2020-03-01T00:00:00.000Z", "2019-04-19 23:59:60.5, 2019-04-19T23:59:59.500Z",
+            "0000-01-01, 0000-01-01T00:00:00.000Z", "9999-12-31 23:59:59.999999, 9999-12-31T23:59:59.999Z",
+            "1969-12-31 23:59:59.999, 1969-12-31T23:59:59.999Z" })
+    void parseMillisTest(final String input, final String expected) {
+        assertEquals(Instant.parse(expected).toEpochMilli(), TemporalParser.parseMillis(input), input);
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "2019-04-19 15:13:20.3451237, 2019-04-19T15:13:20.345123700Z",
+            "2019-04-19T15:13:20.123456789, 2019-04-19T15:13:20.123456789Z",
+            "2019-04-19 15:13:20.1234567891, 2019-04-19T15:13:20.123456789Z",
+            "19/04/2019 15:13:20.000001, 2019-04-19T15:13:20.000001Z", "15:13:20.5, 2020-01-01T15:13:20.500Z",
+            "1969-12-31 23:59:59.999999, 1969-12-31T23:59:59.999999Z", "2019-04-19, 2019-04-19T00:00:00Z" })
+    void parseTest(final String input, final String expected) {
+        EpochTime time = TemporalParser.parse(input, new EpochTime());
+        Instant instant = Instant.parse(expected);
+        assertEquals(instant.getEpochSecond(), time.seconds, input);
+        assertEquals(instant.getNano(), time.nanos, input);
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "2019-04-19, true", "2019-04-19Z, true", "2019-04-19 15:13:20, true", "2019-04-19T15:13:20Z, true",
+            "2019-04-19 15:13:20.3, true", "2019-04-19 15:13:20.123456789Z, true", "2020-02-29T24:00:00, true",
+            "2019-04-19 23:59:60.5, true", "2019-4-19 15:13:20, false", "2019-04-19 3:13:20, false",
+            "2019-04-19  15:13:20, false", "2019-04-19 15:13:20., false", "2019-04-19 15:13:20.1234567891, false",
+            "2019-04-19 15:13:20+02:00, false", "2019-04-19 15:13, false", "19/04/2019 15:13:20, false",
+            "2019-04-1x, false", "2019-04-19 15:13:2x, false" })
+    void parseIsoTest(final String input, final boolean accepted) {
+        EpochTime fixed = new EpochTime().set(-1, -1);
+        assertEquals(accepted, TemporalParser.parseIso(input, fixed), input);
+        if (accepted) {
+            EpochTime general = TemporalParser.parse(input, new EpochTime());
+            assertEquals(general.seconds, fixed.seconds, input);
+            assertEquals(general.nanos, fixed.nanos, input);
+        } else {
+            assertEquals(-1, fixed.seconds, input);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "2019-13-01", "2019-02-29", "2019-04-31 10:00:00", "2019-04-19 25:00:00",
+            "2019-04-19 24:00:01", "2019-04-19 10:60:00", "19-Foo-2019", "00/04/2019" })
+    void parseMillisInvalidTest(final String input) {
+        assertThrows(DateTimeException.class, () -> TemporalParser.parseMillis(input), input);
+        if (input.startsWith("2019-"))
+            assertThrows(DateTimeException.class, () -> TemporalParser.parseIso(input, new EpochTime()), input);
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "2019-04-19 15:13:20, OK", "0000-00-00 00:00:00, INVALID_FIELDS", "2019-02-29, INVALID_FIELDS",
+            "19-Foo-2019, UNKNOWN_MONTH", "2019-04-19 15:13:20+19:00, INVALID_OFFSET",
+            "2019-04-19 15:13:20+02:60, INVALID_OFFSET", "2019-04-19 15:13:20+02:00, OK", "-infinity, MALFORMED",
+            "N/A-, MALFORMED", "-1, MALFORMED", "12019-04-19, MALFORMED", "T, MALFORMED" })
+    void tryParseTest(final String input, final ParseStatus expected) {
+        EpochTime time = new EpochTime();
+        assertEquals(expected, TemporalParser.tryParseWithOffset(input, time), input);
+        if (expected != ParseStatus.INVALID_OFFSET)
+            assertEquals(expected, TemporalParser.tryParse(input, new EpochTime()), input);
+        if (expected != ParseStatus.OK)
+            assertThrows(DateTimeException.class, () -> TemporalParser.parseWithOffset(input, new EpochTime()), input);
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "15:13:20, 54800, 0", "0:00:00, 0, 0", "24:00:00, 86400, 0", "838:59:59, 3020399, 0",
+            "-838:59:59, -3020399, 0", "-12:30:00, -45000, 0", "-00:00:00.25, -1, 750000000",
+            "100:1:2.123456789, 360062, 123456789", "-0:00:01.5, -2, 500000000", "999999999:59:59, 3599999999999, 0" })
+    void parseElapsedTest(final String input, final long seconds, final int nanos) {
+        EpochTime time = new EpochTime();
+        assertEquals(ParseStatus.OK, TemporalParser.tryParseElapsed(input, time), input);
+        assertEquals(seconds, time.seconds, input);
+        assertEquals(nanos, time.nanos, input);
+        assertTrue(time.elapsed, input);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "-", "15:13", "15:60:00", "23:59:60", "1234567890:00:00", "15:13:20.", "15:13:20Z",
+            "15:13:20.1234567891", "2019-04-19 15:13:20", "--1:00:00", "15:13:20 ", "55800123" })
+    void parseElapsedRejectedTest(final String input) {
+        EpochTime time = new EpochTime().set(-1, -1);
+        assertNull(TemporalParser.tryParseElapsed(input, time), input);
+        assertEquals(-1, time.seconds, input);
+        assertEquals(-1, time.nanos, input);
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "1970, 1, 1", "2000, 2, 29", "1600, 3, 1", "1, 1, 1", "0, 12, 31", "-1, 6, 15", "9999, 12, 31" })
+    void epochDayTest(final int year, final int month, final int day) {
+        assertEquals(LocalDate.of(year, month, day).toEpochDay(), TemporalParser.epochDay(year, month, day));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "2019-04-19 15:13:20+02:00, 2019-04-19T13:13:20Z, false",
+            "2019-04-19 15:13:20.279-05, 2019-04-19T20:13:20.279Z, false",
+            "2019-04-19T15:13:20.2790000 +05:30, 2019-04-19T09:43:20.279Z, false",
+            "2019-04-19 15:13:20-0330, 2019-04-19T18:43:20Z, false", "2019-04-19T15:13:20Z, 2019-04-19T15:13:20Z, false",
+            "2019-04-19 00:00:00+01:02:03, 2019-04-18T22:57:57Z, false", "2019-04-19+02:00, 2019-04-18T22:00:00Z, false",
+            "2019-04-19 15:13:20, 2019-04-19T15:13:20Z, true", "2019-04-19 15:13:20 -, 2019-04-19T15:13:20Z, true" })
+    void parseWithOffsetTest(final String input, final String expected, final boolean local) {
+        EpochTime time = TemporalParser.parseWithOffset(input, new EpochTime());
+        Instant instant = Instant.parse(expected);
+        assertEquals(instant.getEpochSecond(), time.seconds, input);
+        assertEquals(instant.getNano(), time.nanos, input);
+        assertEquals(local, time.local, input);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "2019-04-19 15:13:20+19:00", "2019-04-19 15:13:20+02:60" })
+    void parseWithOffsetInvalidTest(final String input) {
+        assertThrows(DateTimeException.class, () -> TemporalParser.parseWithOffset(input, new EpochTime()), input);
+    }
+}
@@ -1,16 +1,39 @@
 package oryanmoshe.kafka.connect.util;
 
 import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import io.debezium.spi.converter.RelationalColumn;
 import io.debezium.spi.converter.CustomConverter.Converter;
 import io.debezium.spi.converter.CustomConverter.ConverterRegistration;
 
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.OptionalInt;
 import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TimestampConverterTests {
     private class MockRegistration<S> implements ConverterRegistration<S> {
@@ -112,6 +135,434 @@ public class TimestampConverterTests {
         }
     }
 
+    @Test
+    void typedConverterTest() {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        tsConverter.configure(new Properties());
+
+        assertTypedConversion(tsConverter, "datetime", Timestamp.valueOf("2019-04-19 15:13:20.345123"),
+                "2019-04-19T15:13:20.345Z");
+        assertTypedConversion(tsConverter, "datetime", Instant.parse("2019-04-19T15:13:20.345123Z"),
+                "2019-04-19T15:13:20.345Z");
+        assertTypedConversion(tsConverter, "datetime2", LocalDateTime.of(2019, 4, 19, 15, 13, 20, 345123000),
+                "2019-04-19T15:13:20.345Z");
+        assertTypedConversion(tsConverter, "timestamp", LocalDateTime.of(2019, 4, 19, 15, 13), "2019-04-19T15:13:00.000Z");
+        assertTypedConversion(tsConverter, "timestamp", 1587042000279L, "2020-04-16T13:00:00.279Z");
+        assertTypedConversion(tsConverter, "timestamp", 1587042000279123L, "2020-04-16T13:00:00.279Z");
+        assertTypedConversion(tsConverter, "date", LocalDate.of(2019, 4, 19), "2019-04-19");
+        assertTypedConversion(tsConverter, "date", java.sql.Date.valueOf("2019-04-19"), "2019-04-19");
+        assertTypedConversion(tsConverter, "date", 18368, "2020-04-16");
+        assertTypedConversion(tsConverter, "date", -10, "1969-12-22");
+        assertTypedConversion(tsConverter, "time", LocalTime.of(15, 13, 20, 345123000), "15:13:20.345");
+        assertTypedConversion(tsConverter, "time", Time.valueOf("15:13:20"), "15:13:20.000");
+        assertTypedConversion(tsConverter, "time", Duration.ofMillis(54800345L), "15:13:20.345");
+        assertTypedConversion(tsConverter, "time", 2230L, "00:00:02.230");
+    }
+
+    void assertTypedConversion(TimestampConverter tsConverter, String columnType, Object input, String expectedResult) {
+        MockRegistration<SchemaBuilder> mockRegistration = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(getMockColumn(columnType), mockRegistration);
+
+        assertEquals(expectedResult, mockRegistration._converter.convert(input),
+                String.format("columnType: %s, input: %s (%s)", columnType, input, input.getClass().getName()));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "datetime, string, STRING, , 2020-04-16T13:00:00.279Z",
+            "datetime, logical, INT64, org.apache.kafka.connect.data.Timestamp, 1587042000279",
+            "datetime, millis, INT64, io.debezium.time.Timestamp, 1587042000279",
+            "datetime, micros, INT64, io.debezium.time.MicroTimestamp, 1587042000279123",
+            "date, logical, INT32, org.apache.kafka.connect.data.Date, 1586995200000",
+            "date, millis, INT32, io.debezium.time.Date, 18368", "date, micros, INT32, io.debezium.time.Date, 18368",
+            "time, logical, INT32, org.apache.kafka.connect.data.Time, 46800279",
+            "time, millis, INT32, io.debezium.time.Time, 46800279",
+            "time, micros, INT64, io.debezium.time.MicroTime, 46800279123" })
+    void outputModeTest(final String columnType, final String outputMode, final String expectedType,
+            final String expectedName, final String expectedResult) {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("output.mode", outputMode);
+        tsConverter.configure(props);
+
+        MockRegistration<SchemaBuilder> mockRegistration = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(getMockColumn(columnType), mockRegistration);
+        assertEquals(expectedType, mockRegistration._schema.type().name());
+        assertEquals(expectedName, mockRegistration._schema.name());
+        assertEquals(true, mockRegistration._schema.isOptional());
+
+        Object result = mockRegistration._converter.convert("2020-04-16 13:00:00.279123");
+        if (result instanceof java.util.Date)
+            result = ((java.util.Date) result).getTime();
+        assertEquals(expectedResult, String.valueOf(result));
+        // Values the schema cannot carry become null
+        assertEquals(outputMode.equals("string") ? " " : null, mockRegistration._converter.convert(" "));
+    }
+
+    @Test
+    void outputModePerTypeTest() {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("output.mode", "millis");
+        props.put("output.mode.datetime2", "micros");
+        props.put("output.mode.date", "STRING");
+        tsConverter.configure(props);
+
+        assertEquals(OutputMode.MILLIS, tsConverter.outputModes.get("datetime"));
+        assertEquals(OutputMode.MICROS, tsConverter.outputModes.get("datetime2"));
+        assertEquals(OutputMode.STRING, tsConverter.outputModes.get("date"));
+
+        props.put("output.mode.time", "seconds");
+        assertThrows(IllegalArgumentException.class, () -> tsConverter.configure(props));
+    }
+
+    @Test
+    void rulesTest() {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("format.datetime", "yyyy-MM-dd HH:mm:ss");
+        props.put("rules.1.match", "inventory.orders.created_at, billing.*.*_on");
+        props.put("rules.1.format.datetime", "yyyy-MM-dd'T'HH:mm:ss.ffffff");
+        props.put("rules.1.format.date", "dd/MM/yyyy");
+        props.put("rules.2.match", "inventory.*.*");
+        props.put("rules.2.output.mode", "millis");
+        props.put("rules.2.output.mode.date", "string");
+        tsConverter.configure(props);
+
+        assertRuleConversion(tsConverter, "inventory.orders", "created_at", "datetime", "2019-04-19T15:13:20.345123");
+        assertRuleConversion(tsConverter, "billing.invoices", "issued_on", "date", "19/04/2019");
+        assertRuleConversion(tsConverter, "billing.invoices", "issued_at", "datetime", "2019-04-19 15:13:20");
+        assertRuleConversion(tsConverter, "inventory.orders", "shipped_at", "datetime", 1555686800345L);
+        assertRuleConversion(tsConverter, "inventory.orders", "shipped_on", "date", "2019-04-19");
+        assertRuleConversion(tsConverter, "warehouse.orders", "created_at", "datetime", "2019-04-19 15:13:20");
+        assertEquals(TimestampConverter.DEFAULT_DATE_FORMAT, tsConverter.strDateFormat);
+
+        props.put("rules.first.match", "*.*.*");
+        assertThrows(IllegalArgumentException.class, () -> tsConverter.configure(props));
+    }
+
+    @Test
+    void timezoneTest() {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("source.timezone", "America/New_York");
+        props.put("target.timezone", "Europe/Berlin");
+        props.put("format.datetime", "yyyy-MM-dd HH:mm:ss.SSSXXX");
+        props.put("rules.1.match", "inventory.*.*");
+        props.put("rules.1.output.mode", "millis");
+        props.put("rules.2.match", "billing.*.*");
+        props.put("rules.2.source.timezone", "UTC");
+        tsConverter.configure(props);
+
+        // Wall clocks are read in the source zone and rendered in the target zone
+        assertRuleConversion(tsConverter, "warehouse.orders", "created_at", "datetime",
+                "2019-04-19 21:13:20.345+02:00");
+        assertRuleConversion(tsConverter, "inventory.orders", "created_at", "datetime", 1555701200345L);
+        assertRuleConversion(tsConverter, "billing.invoices", "created_at", "datetime",
+                "2019-04-19 17:13:20.345+02:00");
+        // Dates and times have no zone
+        assertRuleConversion(tsConverter, "warehouse.orders", "created_on", "date", "2019-04-19");
+
+        // Instants only change the rendering
+        MockRegistration<SchemaBuilder> mockRegistration = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn("warehouse.orders", "created_at", "timestamp"), mockRegistration);
+        assertEquals("2019-04-19 17:13:20.345+02:00", mockRegistration._converter.convert(1555686800345L));
+        // In the gap of the spring forward the wall clock is moved by the length of the gap
+        assertEquals("2019-03-10 08:30:00.000+01:00", mockRegistration._converter.convert("2019-03-10 02:30:00"));
+
+        props.put("target.timezone", "Mars/Olympus_Mons");
+        assertThrows(IllegalArgumentException.class, () -> tsConverter.configure(props));
+    }
+
+    @Test
+    void zonedDefaultFormatTest() {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("target.timezone", "Europe/Berlin");
+        props.put("rules.1.match", "inventory.*.*");
+        props.put("rules.1.target.timezone", "UTC");
+        props.put("rules.2.match", "billing.*.*");
+        props.put("rules.2.target.timezone", "Asia/Tokyo");
+        tsConverter.configure(props);
+
+        // Without format.datetime a target zone other than UTC is rendered with its offset, not a literal 'Z'
+        assertRuleConversion(tsConverter, "warehouse.orders", "created_at", "datetime",
+                "2019-04-19T17:13:20.345+02:00");
+        assertRuleConversion(tsConverter, "inventory.orders", "created_at", "datetime", "2019-04-19T15:13:20.345Z");
+        assertRuleConversion(tsConverter, "billing.invoices", "created_at", "datetime",
+                "2019-04-20T00:13:20.345+09:00");
+
+        // A set format is kept whatever the target zone
+        props.put("format.datetime", "yyyy-MM-dd HH:mm:ss");
+        tsConverter.configure(props);
+        assertRuleConversion(tsConverter, "warehouse.orders", "created_at", "datetime", "2019-04-19 17:13:20");
+        assertRuleConversion(tsConverter, "billing.invoices", "created_at", "datetime", "2019-04-20 00:13:20");
+    }
+
+    @Test
+    void vendorTypesTest() {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("format.datetime", "yyyy-MM-dd HH:mm:ss.SSSXXX");
+        props.put("source.timezone", "America/New_York");
+        props.put("output.mode.year", "millis");
+        tsConverter.configure(props);
+
+        // Values with an offset are instants, the others wall clocks in the source zone
+        assertVendorConversion(tsConverter, "timestamptz", 0, "2019-04-19 15:13:20.345+02",
+                "2019-04-19 13:13:20.345Z");
+        assertVendorConversion(tsConverter, "TIMESTAMP(6) WITH TIME ZONE", 0,
+                java.time.OffsetDateTime.parse("2019-04-19T15:13:20.345+02:00"), "2019-04-19 13:13:20.345Z");
+        assertVendorConversion(tsConverter, "datetimeoffset", 0, "2019-04-19 15:13:20.3450000 -05:00",
+                "2019-04-19 20:13:20.345Z");
+        assertVendorConversion(tsConverter, "timestamptz", 0, "2019-04-19 15:13:20.345", "2019-04-19 19:13:20.345Z");
+        assertVendorConversion(tsConverter, "datetime2(7)", 0, "2019-04-19 15:13:20.345", "2019-04-19 19:13:20.345Z");
+        // Oracle's DATE has a time of the day
+        assertVendorConversion(tsConverter, "DATE", java.sql.Types.TIMESTAMP, "2019-04-19 15:13:20",
+                "2019-04-19 19:13:20.000Z");
+        assertVendorConversion(tsConverter, "date", java.sql.Types.DATE, "2019-04-19 15:13:20", "2019-04-19");
+        assertVendorConversion(tsConverter, "year", 0, 2019, 17897);
+        assertVendorConversion(tsConverter, "year", 0, "2019", 17897);
+        assertVendorConversion(tsConverter, "unixtime", 0, 1555686800L, "2019-04-19 15:13:20.000Z");
+        assertVendorConversion(tsConverter, "varchar", 0, "2019-04-19", null);
+
+        assertEquals(OutputMode.MILLIS, tsConverter.outputModes.get("year"));
+        assertEquals(OutputMode.STRING, tsConverter.outputModes.get("timestamp with time zone"));
+    }
+
+    void assertVendorConversion(TimestampConverter tsConverter, String typeName, int jdbcType, Object input,
+            Object expectedResult) {
+        MockRegistration<SchemaBuilder> mockRegistration = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn("inventory.orders", "created", typeName, jdbcType),
+                mockRegistration);
+
+        if (expectedResult == null)
+            assertNull(mockRegistration._converter, typeName + " should not be registered");
+        else
+            assertEquals(expectedResult, mockRegistration._converter.convert(input), typeName + " " + input);
+    }
+
+    @Test
+    void memoCacheTest() {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("memo.cache.size", "100");
+        props.put("rules.1.match", "billing.*.*");
+        props.put("rules.1.format.datetime", "yyyy-MM-dd");
+        tsConverter.configure(props);
+
+        MockRegistration<SchemaBuilder> first = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn("inventory.orders", "created_at", "datetime"), first);
+        MockRegistration<SchemaBuilder> second = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn("inventory.orders", "updated_at", "datetime"), second);
+        MockRegistration<SchemaBuilder> other = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn("billing.invoices", "created_at", "datetime"), other);
+
+        Object converted = null;
+        for (int i = 0; i < 3; i++)
+            converted = first._converter.convert("9999-12-31 00:00:00");
+        assertEquals("9999-12-31T00:00:00.000Z", converted);
+        // Columns of the same type share the cached instance, columns of other rules have their own cache
+        assertSame(converted, second._converter.convert("9999-12-31 00:00:00"));
+        assertEquals("9999-12-31", other._converter.convert("9999-12-31 00:00:00"));
+        assertEquals("2020-04-16T13:00:00.279Z", second._converter.convert(1587042000279L));
+
+        CacheStatistics statistics = tsConverter.memoCacheStatistics().get("datetime (DATETIME)");
+        assertEquals(2, statistics.hits());
+        assertEquals(3, statistics.misses());
+        assertEquals(128, statistics.capacity());
+
+        props.put("output.mode", "millis");
+        tsConverter.configure(props);
+        tsConverter.converterFor(new MockColumn("inventory.orders", "created_at", "datetime"), first);
+        assertEquals(Map.of(), tsConverter.memoCacheStatistics(), "only string outputs should be memoized");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "default", "passthrough" })
+    void memoFailureTest(final String policy) {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("memo.cache.size", "100");
+        props.put("on.failure", policy);
+        tsConverter.configure(props);
+
+        MockRegistration<SchemaBuilder> a = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn("inventory.orders", "a", "datetime", false, true, "2000-01-01"), a);
+        MockRegistration<SchemaBuilder> b = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn("inventory.orders", "b", "datetime", false, true, "1999-09-09"), b);
+
+        // Failures depend on the column's policy and default, and are counted every time
+        for (int i = 0; i < 3; i++) {
+            assertEquals(policy.equals("default") ? "2000-01-01T00:00:00.000Z" : "0000-00-00 00:00:00",
+                    a._converter.convert("0000-00-00 00:00:00"));
+            assertEquals(policy.equals("default") ? "1999-09-09T00:00:00.000Z" : "0000-00-00 00:00:00",
+                    b._converter.convert("0000-00-00 00:00:00"));
+        }
+        assertEquals(Map.of("inventory.orders.a", Map.of("INVALID_FIELDS", 3L), "inventory.orders.b",
+                Map.of("INVALID_FIELDS", 3L)), tsConverter.parseFailures());
+        assertEquals(0, tsConverter.memoCacheStatistics().get("datetime (DATETIME)").hits());
+    }
+
+    @Test
+    void onFailureTest() {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("on.failure", "null");
+        props.put("rules.1.match", "legacy.*.*");
+        props.put("rules.1.on.failure", "passthrough");
+        tsConverter.configure(props);
+
+        MockRegistration<SchemaBuilder> orders = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn("inventory.orders", "created_at", "datetime"), orders);
+        MockRegistration<SchemaBuilder> legacy = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn("legacy.orders", "created_at", "datetime"), legacy);
+
+        assertNull(orders._converter.convert("0000-00-00 00:00:00"));
+        assertNull(orders._converter.convert("infinity"));
+        assertEquals("0000-00-00 00:00:00", legacy._converter.convert("0000-00-00 00:00:00"));
+        assertEquals("2019-04-19T15:13:20.000Z", legacy._converter.convert("2019-04-19 15:13:20"));
+        assertEquals(Map.of("inventory.orders.created_at", Map.of("INVALID_FIELDS", 1L, "MALFORMED", 1L),
+                "legacy.orders.created_at", Map.of("INVALID_FIELDS", 1L)), tsConverter.parseFailures());
+
+        props.put("on.failure", "retry");
+        assertThrows(IllegalArgumentException.class, () -> tsConverter.configure(props));
+    }
+
+    @Test
+    void wideSchemaTest() {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        tsConverter.configure(new Properties());
+        Set<Converter> converters = Collections.newSetFromMap(new IdentityHashMap<>());
+        registerColumns(tsConverter, "wide", 20_000, converters);
+
+        // Every column has a converter of its own around one of a datetime, date, time and datetime2 conversion, and
+        // a datetime one with a default
+        Set<ColumnConverter.Conversion> conversions = Collections.newSetFromMap(new IdentityHashMap<>());
+        converters.forEach(converter -> conversions.add(((ColumnConverter) converter).conversion()));
+        assertEquals(20_000, converters.size());
+        assertEquals(5, conversions.size());
+        assertEquals(5, tsConverter.sharedConverterCount());
+    }
+
+    @Test
+    void sharedConversionStateTest() {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        Properties props = new Properties();
+        props.put("on.failure", "null");
+        tsConverter.configure(props);
+        MockRegistration<SchemaBuilder> epochs = new MockRegistration<SchemaBuilder>();
+        MockRegistration<SchemaBuilder> texts = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn("inventory.orders", "created_at", "datetime"), epochs);
+        tsConverter.converterFor(new MockColumn("inventory.orders", "updated_at", "datetime"), texts);
+        assertEquals(1, tsConverter.sharedConverterCount());
+
+        // Interleaved, so that a shared shape would change on every value
+        for (int i = 0; i < 3; i++) {
+            assertEquals("2019-04-19T15:13:20.000Z", epochs._converter.convert("1555686800000"));
+            assertEquals("2019-04-19T15:13:20.000Z", texts._converter.convert("2019-04-19 15:13:20"));
+        }
+        assertEquals(Map.of("inventory.orders.created_at", "EPOCH_MILLIS", "inventory.orders.updated_at", "ISO"),
+                tsConverter.detectedShapes());
+
+        assertNull(epochs._converter.convert("N/A"));
+        assertEquals(Map.of("inventory.orders.created_at", Map.of("MALFORMED", 1L)), tsConverter.parseFailures());
+    }
+
+    /**
+     * Registers {@code count} columns spread over tables of 50 columns, collecting their converters.
+     */
+    private void registerColumns(TimestampConverter tsConverter, String schema, int count, Set<Converter> converters) {
+        String[] types = { "datetime", "date", "time", "datetime2" };
+        List<RelationalColumn> columns = new ArrayList<>(count);
+        List<MockRegistration<SchemaBuilder>> registrations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String table = schema + ".table" + i / 50;
+            columns.add(i % 10 == 0
+                    ? new MockColumn(table, "column" + i, "datetime", false, true, "1970-01-01 00:00:00")
+                    : new MockColumn(table, "column" + i, types[i % types.length]));
+            registrations.add(new MockRegistration<SchemaBuilder>());
+        }
+
+        for (int i = 0; i < count; i++)
+            tsConverter.converterFor(columns.get(i), registrations.get(i));
+        registrations.forEach(registration -> converters.add(registration._converter));
+    }
+
+    void assertRuleConversion(TimestampConverter tsConverter, String table, String column, String columnType,
+            Object expectedResult) {
+        MockRegistration<SchemaBuilder> mockRegistration = new MockRegistration<SchemaBuilder>();
+        tsConverter.converterFor(new MockColumn(table, column, columnType), mockRegistration);
+
+        assertEquals(expectedResult, mockRegistration._converter.convert("2019-04-19 15:13:20.345123"),
+                table + "." + column);
+    }
+
+    @Test
+    void concurrentConverterTest() throws Exception {
+        final TimestampConverter tsConverter = new TimestampConverter();
+        tsConverter.configure(new Properties());
+
+        final String[] columnTypes = { "date", "time", "datetime", "timestamp", "datetime2" };
+        final Converter[] converters = new Converter[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++) {
+            MockRegistration<SchemaBuilder> mockRegistration = new MockRegistration<SchemaBuilder>();
+            tsConverter.converterFor(getMockColumn(columnTypes[i]), mockRegistration);
+            converters[i] = mockRegistration._converter;
+        }
+
+        final Random random = new Random(20200416L);
+        final String[] inputs = new String[1024];
+        for (int i = 0; i < inputs.length; i++) {
+            long millis = 1000000000000L + (long) (random.nextDouble() * 3102444800000L);
+            switch (i % 4) {
+                case 0:
+                    inputs[i] = Long.toString(millis / 86400000L);
+                    break;
+                case 1:
+                    inputs[i] = Long.toString(millis);
+                    break;
+                case 2:
+                    inputs[i] = Instant.ofEpochMilli(millis).toString().replace('T', ' ').replace("Z", "");
+                    break;
+                default:
+                    inputs[i] = String.format("%d:%d:%d.%d", random.nextInt(24), random.nextInt(60),
+                            random.nextInt(60), random.nextInt(1000));
+            }
+        }
+
+        final Object[][] expected = new Object[converters.length][inputs.length];
+        for (int c = 0; c < converters.length; c++)
+            for (int i = 0; i < inputs.length; i++)
+                expected[c][i] = converters[c].convert(inputs[i]);
+
+        final int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        final int conversionsPerThread = 2_000_000 / threads;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t * 7919;
+                results.add(executor.submit(() -> {
+                    int mismatches = 0;
+                    for (int n = 0; n < conversionsPerThread; n++) {
+                        int c = n % converters.length;
+                        int i = (n / converters.length + offset) % inputs.length;
+                        if (!expected[c][i].equals(converters[c].convert(inputs[i])))
+                            mismatches++;
+                    }
+                    return mismatches;
+                }));
+            }
+
+            int mismatches = 0;
+            for (Future<Integer> result : results)
+                mismatches += result.get();
+            assertEquals(0, mismatches, "concurrent conversions should match the single threaded results");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     RelationalColumn getMockColumn(String type) {
         switch (type) {
             case "date":
@@ -0,0 +1,109 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TimestampConverterTransformTests {
+
+    private static final Schema VALUE_SCHEMA = SchemaBuilder.struct().name("inventory.orders.Value")
+            .field("id", Schema.INT64_SCHEMA)
+            .field("created_at", Timestamp.SCHEMA)
+            .field("shipped_on", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("updated", Schema.OPTIONAL_INT64_SCHEMA)
+            .build();
+
+    @Test
+    void structTest() {
+        TimestampConverterTransform<SourceRecord> transform = new TimestampConverterTransform.Value<>();
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("field.types", "shipped_on:date, updated:datetime");
+        configs.put("rules.1.match", "orders.updated");
+        configs.put("rules.1.output.mode", "millis");
+        transform.configure(configs);
+
+        SourceRecord converted = transform.apply(record(1587042000279L, "2020-04-17", 1587042000279L));
+        Schema schema = converted.valueSchema();
+        assertEquals("inventory.orders.Value", schema.name());
+        assertEquals(Schema.INT64_SCHEMA, schema.field("id").schema());
+        assertEquals(Schema.Type.STRING, schema.field("created_at").schema().type());
+        assertEquals(Schema.Type.STRING, schema.field("shipped_on").schema().type());
+        assertEquals("io.debezium.time.Timestamp", schema.field("updated").schema().name());
+
+        Struct value = (Struct) converted.value();
+        assertEquals(7L, value.get("id"));
+        assertEquals("2020-04-16T13:00:00.279Z", value.get("created_at"));
+        assertEquals("2020-04-17", value.get("shipped_on"));
+        assertEquals(1587042000279L, value.get("updated"));
+
+        // The plan of a schema is reused
+        SourceRecord next = transform.apply(record(0L, null, null));
+        assertSame(schema, next.valueSchema());
+        assertEquals("1970-01-01T00:00:00.000Z", ((Struct) next.value()).get("created_at"));
+        assertNull(((Struct) next.value()).get("shipped_on"));
+        transform.close();
+    }
+
+    @Test
+    void topicPlanTest() {
+        TimestampConverterTransform<SourceRecord> transform = new TimestampConverterTransform.Value<>();
+        Map<String, Object> configs = new HashMap<>();
+        configs.put("field.types", "updated:datetime");
+        configs.put("rules.1.match", "orders.updated");
+        configs.put("rules.1.output.mode", "millis");
+        transform.configure(configs);
+
+        // Topics sharing a schema alternate without replacing each other's plan
+        Schema orders = transform.apply(record("orders", 1587042000279L, null, 1587042000279L)).valueSchema();
+        Schema customers = transform.apply(record("customers", 1587042000279L, null, 1587042000279L)).valueSchema();
+        assertEquals("io.debezium.time.Timestamp", orders.field("updated").schema().name());
+        assertEquals(Schema.Type.STRING, customers.field("updated").schema().type());
+        assertSame(orders, transform.apply(record("orders", 0L, null, 0L)).valueSchema());
+        assertSame(customers, transform.apply(record("customers", 0L, null, 0L)).valueSchema());
+        transform.close();
+    }
+
+    @Test
+    void schemalessTest() {
+        TimestampConverterTransform<SourceRecord> transform = new TimestampConverterTransform.Key<>();
+        transform.configure(Map.of("field.types", "created_at:datetime", "format.datetime", "yyyy-MM-dd HH:mm"));
+
+        Map<String, Object> key = new HashMap<>();
+        key.put("id", 7L);
+        key.put("created_at", 1587042000279L);
+        SourceRecord converted = transform.apply(new SourceRecord(null, null, "orders", 0, null, key, null, "x"));
+        assertEquals(Map.of("id", 7L, "created_at", "2020-04-16 13:00"), converted.key());
+        assertEquals("x", converted.value());
+        assertEquals(1587042000279L, key.get("created_at"), "the original key should not change");
+    }
+
+    @Test
+    void invalidConfigTest() {
+        TimestampConverterTransform<SourceRecord> transform = new TimestampConverterTransform.Value<>();
+        assertThrows(IllegalArgumentException.class, () -> transform.configure(Map.of("field.types", "created_at")));
+        assertThrows(IllegalArgumentException.class,
+                () -> transform.configure(Map.of("field.types", "created_at:instant")));
+    }
+
+    private static SourceRecord record(long createdAt, String shippedOn, Long updated) {
+        return record("orders", createdAt, shippedOn, updated);
+    }
+
+    private static SourceRecord record(String topic, long createdAt, String shippedOn, Long updated) {
+        Struct value = new Struct(VALUE_SCHEMA).put("id", 7L).put("created_at", new Date(createdAt))
+                .put("shipped_on", shippedOn).put("updated", updated);
+        return new SourceRecord(null, null, topic, 0, null, null, VALUE_SCHEMA, value);
+    }
+}
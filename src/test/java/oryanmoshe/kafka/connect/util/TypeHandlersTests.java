@@ -0,0 +1,87 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TypeHandlersTests {
+
+    @ParameterizedTest
+    @CsvSource({ "DATETIME2, datetime2", "datetime2(7), datetime2",
+            "TIMESTAMP(6) WITH TIME ZONE, timestamp with time zone", "' timestamp  without\ttime zone ', timestamp without time zone",
+            "timestamp(3) with local time zone, timestamp with local time zone", "Year, year" })
+    void normalizeTest(final String typeName, final String expected) {
+        assertEquals(expected, TypeHandlers.normalize(typeName));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "date, 0, DATE, false", "DATE, " + Types.TIMESTAMP + ", DATETIME, false", "time, 0, TIME, false",
+            "datetime, 0, DATETIME, false", "TIMESTAMP(6), 0, DATETIME, false", "timestamptz, 0, DATETIME, true",
+            "timestamp with time zone, 0, DATETIME, true", "datetimeoffset, 0, DATETIME, true",
+            "year, 0, DATE, false", "unixtime, 0, DATETIME, false" })
+    void lookupTest(final String typeName, final int jdbcType, final TemporalKind kind, final boolean hasOffset) {
+        TypeHandler handler = TypeHandlers.lookup(typeName);
+        assertEquals(kind, handler.kind(jdbcType), typeName);
+        assertEquals(hasOffset, handler.hasOffset(), typeName);
+    }
+
+    @Test
+    void serviceLoaderTest() {
+        assertTrue(TypeHandlers.lookup("UNIXTIME") instanceof MockTypeHandler);
+        assertTrue(TypeHandlers.lookup("smalldatetime") instanceof TypeHandlers.DatetimeHandler);
+        assertTrue(TypeHandlers.lookup("datetime") instanceof TypeHandlers.DatetimeHandler);
+        assertNull(TypeHandlers.lookup("varchar"));
+        assertNull(TypeHandlers.lookup("interval"));
+    }
+
+    @Test
+    void replacingServiceLoaderTest() throws Exception {
+        // The replacement is only listed in a loader of its own, the rest of the tests keep the built-in handler
+        URL services = getClass().getClassLoader().getResource("replacing-type-handler/");
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { services }, getClass().getClassLoader())) {
+            Map<String, TypeHandler> handlers = TypeHandlers.load(loader);
+            assertTrue(handlers.get("smalldatetime") instanceof MockTypeHandler.Replacement,
+                    "should replace the built-in");
+            assertTrue(handlers.get("unixtime") instanceof MockTypeHandler);
+            assertTrue(handlers.get("datetime") instanceof TypeHandlers.DatetimeHandler);
+        }
+    }
+
+    @Test
+    void yearTest() {
+        TypeHandler handler = TypeHandlers.lookup("year");
+        assertEquals(LocalDate.of(2019, 1, 1), handler.normalize(2019));
+        assertEquals(LocalDate.of(2019, 1, 1), handler.normalize(2019.0));
+        assertEquals(LocalDate.of(2019, 1, 1), handler.normalize(" 2019 "));
+        assertEquals(LocalDate.of(Year.MAX_VALUE, 1, 1), handler.normalize((long) Year.MAX_VALUE));
+        assertNull(handler.normalize(" "));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "1000000000", "-1000000000", "2147485667", "2019.5", "text:1000000000" })
+    void invalidYearTest(final String year) {
+        // 2147485667 is 2019 once truncated to an int
+        Object rawValue = year.startsWith("text:") ? year.substring("text:".length())
+                : year.contains(".") ? (Object) Double.parseDouble(year) : (Object) Long.parseLong(year);
+        TypeHandler handler = TypeHandlers.lookup("year");
+        assertSame(TypeHandler.INVALID, handler.normalize(rawValue));
+
+        ColumnConverter converter = new ColumnConverter(TemporalFormatter.ofPattern("yyyy-MM-dd"), TemporalKind.DATE,
+                handler, 3, OutputMode.STRING, null, FailurePolicy.NULL, null);
+        assertNull(converter.convert(rawValue));
+        assertEquals(Map.of(ParseStatus.INVALID_FIELDS, 1L), converter.failures());
+    }
+}
@@ -0,0 +1,68 @@
+package oryanmoshe.kafka.connect.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ZoneOffsetCacheTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "America/New_York", "Europe/Berlin", "Australia/Lord_Howe", "Asia/Kolkata",
+            "America/St_Johns", "Pacific/Apia", "+05:30" })
+    void offsetTest(final String id) {
+        ZoneId zone = ZoneId.of(id);
+        ZoneRules rules = zone.getRules();
+        ZoneOffsetCache cache = ZoneOffsetCache.of(zone);
+
+        Random random = new Random(id.hashCode());
+        for (int i = 0; i < 20_000; i++) {
+            // Mostly a few years around now, with some values far outside of them
+            long epochSecond = i % 10 == 0 ? (long) ((random.nextDouble() - 0.5) * 2 * 253402300799L)
+                    : 1500000000L + (long) (random.nextDouble() * 5 * 365 * 86400L);
+            assertEquals(rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds(),
+                    cache.offsetAt(epochSecond), id + " at " + epochSecond);
+            assertLocal(zone, cache, epochSecond);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "America/New_York", "Europe/Berlin", "Australia/Lord_Howe" })
+    void transitionTest(final String id) {
+        ZoneId zone = ZoneId.of(id);
+        ZoneOffsetCache cache = ZoneOffsetCache.of(zone);
+
+        // Every second of the local hours around the gaps and overlaps
+        ZoneOffsetTransition transition = zone.getRules().nextTransition(Instant.parse("2019-01-01T00:00:00Z"));
+        for (int i = 0; i < 4; i++) {
+            long local = transition.getDateTimeBefore().toEpochSecond(ZoneOffset.UTC);
+            for (long second = local - 7200; second < local + 7200; second += 15)
+                assertLocal(zone, cache, second);
+            transition = zone.getRules().nextTransition(transition.getInstant());
+        }
+    }
+
+    @Test
+    void utcTest() {
+        assertNull(ZoneOffsetCache.of(ZoneId.of("UTC")));
+        assertNull(ZoneOffsetCache.of(ZoneOffset.UTC));
+        assertNull(ZoneOffsetCache.of(ZoneId.of("Etc/GMT")));
+    }
+
+    private static void assertLocal(ZoneId zone, ZoneOffsetCache cache, long localSecond) {
+        LocalDateTime local = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+        assertEquals(ZonedDateTime.ofLocal(local, zone, null).toEpochSecond(), cache.toEpochSecond(localSecond),
+                zone + " at " + local);
+    }
+}